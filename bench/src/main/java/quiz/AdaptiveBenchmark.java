@@ -0,0 +1,53 @@
+package quiz;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// One adaptive step: pick the unasked question nearest the player's ability,
+// then fold the answer back into the estimate. The session is reset every
+// DEFAULT_QUESTION_COUNT picks, as a real game would be.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AdaptiveBenchmark {
+    @Param({"30", "1000000"})
+    public int questions;
+
+    private QuestionIndex.Selection all;
+    private AdaptiveSelector selector;
+    private AdaptiveSelector.Session session;
+    private final SplittableRandom random = new SplittableRandom(17);
+    private int picked;
+
+    @Setup
+    public void setUp() {
+        all = new QuestionIndex(Banks.synthetic(questions)).all();
+        selector = AdaptiveSelector.build(all, null);
+        session = selector.newSession(new SplittableRandom(5));
+    }
+
+    @Benchmark
+    public int pickAndUpdate() {
+        if (picked++ == QuizEngine.DEFAULT_QUESTION_COUNT) {
+            session.reset();
+            picked = 1;
+        }
+        int id = session.next();
+        session.update(random.nextInt(3) != 0);
+        return id;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public AdaptiveSelector build() {
+        return AdaptiveSelector.build(all, null);
+    }
+}
@@ -0,0 +1,48 @@
+package quiz;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Sustained throughput of the AnswerLog pipeline: producers offer events as
+// fast as the ring accepts them (retrying when it is full), and the clock
+// stops once the writer has applied every event to AnswerStats and encoded it
+// for the file. Reports events per second and how often producers found the
+// ring full.
+//
+// Usage: gradle :bench:measure -Pmain=AnswerLogThroughput [-Pargs="producers events"]
+public class AnswerLogThroughput {
+
+    public static void main(String[] args) throws Exception {
+        int producers = args.length > 0 ? Integer.parseInt(args[0]) : 1;
+        int events = args.length > 1 ? Integer.parseInt(args[1]) : 5_000_000;
+        Path dir = Files.createTempDirectory("answer-log");
+        for (int round = 0; round < 3; round++) { // the first rounds are warm-up
+            Path file = dir.resolve("answers-" + round + ".log");
+            AnswerLog log = AnswerLog.open(file, null);
+            int perProducer = events / producers;
+            Thread[] threads = new Thread[producers];
+            long start = System.nanoTime();
+            for (int t = 0; t < producers; t++) {
+                threads[t] = new Thread(() -> {
+                    for (int i = 0; i < perProducer; i++) {
+                        while (!log.offer(i % 1000, i & 3, (i & 1) == 0, 1_000_000L * (i % 3000))) {
+                            Thread.onSpinWait();
+                        }
+                    }
+                });
+                threads[t].start();
+            }
+            for (Thread thread : threads) thread.join();
+            long total = (long) perProducer * producers;
+            while (log.written() < total) Thread.onSpinWait();
+            long nanos = System.nanoTime() - start;
+            log.close();
+            if (round == 2) {
+                System.out.printf("%d producers, %,d events: %.1f M events/s, %.0f ns/event, ring full %,d times%n",
+                                  producers, total, total * 1000.0 / nanos, (double) nanos / total, log.dropped());
+            }
+            Files.delete(file);
+        }
+        Files.delete(dir);
+    }
+}
@@ -0,0 +1,51 @@
+package quiz;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+// Times BackgroundPanel repaints against the original approach of rescaling a
+// fixed 800x600 ARGB image on every paint. Runs headless into an offscreen
+// RGB surface, so it measures the blit/scale cost rather than the display.
+//
+// Usage: gradle :bench:measure -Pmain=BackgroundPaintBenchmark [-Pargs="width height repaints"]
+public class BackgroundPaintBenchmark {
+
+    public static void main(String[] args) {
+        int w = args.length > 1 ? Integer.parseInt(args[0]) : 1280;
+        int h = args.length > 1 ? Integer.parseInt(args[1]) : 800;
+        int repaints = args.length > 2 ? Integer.parseInt(args[2]) : 2000;
+        BufferedImage screen = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+
+        BufferedImage original = new BufferedImage(800, 600, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D og = original.createGraphics();
+        new BackgroundPanel(false).render(og, 800, 600);
+        og.dispose();
+
+        BackgroundPanel panel = new BackgroundPanel(false);
+        panel.setSize(w, h);
+
+        for (int round = 0; round < 2; round++) { // first round is warm-up
+            long before = time(repaints, () -> {
+                Graphics2D g = screen.createGraphics();
+                g.drawImage(original, 0, 0, w, h, null);
+                g.dispose();
+            });
+            long after = time(repaints, () -> {
+                Graphics2D g = screen.createGraphics();
+                panel.paintComponent(g);
+                g.dispose();
+            });
+            if (round == 1) {
+                System.out.printf("%dx%d, %d repaints%n", w, h, repaints);
+                System.out.printf("rescale 800x600 ARGB per paint: %8.1f us/repaint%n", before / 1000.0 / repaints);
+                System.out.printf("cached BackgroundPanel:         %8.1f us/repaint%n", after / 1000.0 / repaints);
+            }
+        }
+    }
+
+    private static long time(int n, Runnable paint) {
+        long start = System.nanoTime();
+        for (int i = 0; i < n; i++) paint.run();
+        return System.nanoTime() - start;
+    }
+}
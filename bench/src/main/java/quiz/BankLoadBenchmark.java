@@ -0,0 +1,63 @@
+package quiz;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// Loading a question bank at startup: parsing CSV into a QuestionStore versus
+// memory-mapping a .qbank, alone and with the QuestionIndex the game builds
+// over it. Single-shot timing, since startup happens once per process.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(1)
+public class BankLoadBenchmark {
+    @Param({"30", "100000"})
+    public int questions;
+
+    private Path dir;
+    private Path csv;
+    private Path qbank;
+
+    @Setup
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("quiz-bench");
+        csv = dir.resolve("questions.csv");
+        qbank = dir.resolve("questions.qbank");
+        Banks.writeCsv(csv, questions);
+        try (BufferedReader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+            Banks.writeQbank(qbank, QuestionBankImporter.readCsv(reader));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(csv);
+        Files.deleteIfExists(qbank);
+        Files.deleteIfExists(dir);
+    }
+
+    @Benchmark
+    public QuestionBank parseCsv() throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+            return QuestionBankImporter.readCsv(reader);
+        }
+    }
+
+    @Benchmark
+    public QuestionBank mapQbank() throws IOException {
+        return QuestionBankFile.open(qbank);
+    }
+
+    @Benchmark
+    public QuestionIndex mapQbankAndIndex() throws IOException {
+        return new QuestionIndex(QuestionBankFile.open(qbank));
+    }
+}
@@ -0,0 +1,76 @@
+package quiz;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+// Question banks for the benchmarks: the bundled CSV, and synthetic banks of
+// any size with the same shape (four options, a pooled vocabulary, three
+// categories, mixed difficulty), generated from a fixed seed.
+final class Banks {
+    static final String[] CATEGORIES = {"Software Engineering", "Java", "UI/UX"};
+    private static final String[] SHARED = {
+        "Both A and B", "None of the above", "Unit Testing", "Integration Testing",
+        "System Testing", "Acceptance Testing", "true", "false"
+    };
+
+    private Banks() {
+    }
+
+    static QuestionStore bundled() throws IOException {
+        try (InputStream in = QuestionBankLoader.class.getResourceAsStream("/questions.csv")) {
+            return QuestionBankImporter.readCsv(new InputStreamReader(in, StandardCharsets.UTF_8));
+        }
+    }
+
+    static QuestionStore synthetic(int n) {
+        QuestionStore.Builder builder = QuestionStore.builder();
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < n; i++) {
+            builder.add(text(i), options(random), random.nextInt(4), CATEGORIES[random.nextInt(CATEGORIES.length)],
+                        Difficulty.fromCode(random.nextInt(3)));
+        }
+        return builder.build();
+    }
+
+    // Same content as synthetic(n), as a headed CSV file
+    static void writeCsv(Path path, int n) throws IOException {
+        SplittableRandom random = new SplittableRandom(42);
+        try (BufferedWriter out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            out.write("question,option1,option2,option3,option4,answer,category,difficulty\n");
+            for (int i = 0; i < n; i++) {
+                String[] options = options(random);
+                String answer = options[random.nextInt(4)];
+                String category = CATEGORIES[random.nextInt(CATEGORIES.length)];
+                Difficulty difficulty = Difficulty.fromCode(random.nextInt(3));
+                out.write(text(i) + "," + String.join(",", options) + "," + answer + "," + category + "," + difficulty + "\n");
+            }
+        }
+    }
+
+    static void writeQbank(Path path, QuestionBank bank) throws IOException {
+        try (QuestionBankFile.Writer writer = QuestionBankFile.create(path)) {
+            for (int id = 0; id < bank.size(); id++) {
+                writer.add(bank.get(id));
+            }
+        }
+    }
+
+    private static String text(int i) {
+        return "Which statement about concept number " + i + " is correct?";
+    }
+
+    private static String[] options(SplittableRandom random) {
+        String[] options = new String[4];
+        for (int o = 0; o < 4; o++) {
+            options[o] = random.nextInt(4) == 0 ? SHARED[random.nextInt(SHARED.length)]
+                                                : "Option " + random.nextInt(5_000);
+        }
+        return options;
+    }
+}
@@ -0,0 +1,62 @@
+package quiz;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Cost of checkpointing a session after an answer: the state record written
+// into its slot of the memory-mapped SessionCheckpoints file. Alone, and with
+// four threads saving their own sessions into the same file as a busy server
+// would.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CheckpointBenchmark {
+    private Path file;
+    private SessionCheckpoints checkpoints;
+    private QuestionIndex index;
+
+    @Setup
+    public void setUp() throws Exception {
+        file = Files.createTempFile("checkpoints", ".ckpt");
+        Files.delete(file);
+        checkpoints = SessionCheckpoints.open(file, 16_384, 128);
+        index = new QuestionIndex(Banks.bundled());
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        checkpoints.close();
+        Files.deleteIfExists(file);
+    }
+
+    @State(Scope.Thread)
+    public static class Player {
+        QuizEngine engine;
+        SessionCheckpoints.Slot slot;
+
+        @Setup
+        public void setUp(CheckpointBenchmark benchmark) {
+            engine = new QuizEngine(benchmark.index.all(), QuizEngine.DEFAULT_QUESTION_COUNT, new SplittableRandom(7));
+            slot = benchmark.checkpoints.claim(Thread.currentThread().getId(), "player=bench");
+            slot.save(engine); // question ids go in with the first save
+        }
+    }
+
+    @Benchmark
+    public void save(Player player) {
+        player.slot.save(player.engine);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void saveContended(Player player) {
+        player.slot.save(player.engine);
+    }
+}
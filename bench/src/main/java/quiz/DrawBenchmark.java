@@ -0,0 +1,57 @@
+package quiz;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Picking the questions for one game. The original shuffled the whole question
+// list with Collections.shuffle; QuestionIndex.Selection draws k distinct ids
+// in O(k), either from the whole bank or from a category/difficulty filter.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DrawBenchmark {
+    @Param({"30", "1000000"})
+    public int questions;
+
+    private List<Question> list;
+    private QuestionIndex.Selection all;
+    private QuestionIndex.Selection filtered;
+    private final SplittableRandom random = new SplittableRandom(11);
+
+    @Setup
+    public void setUp() {
+        QuestionStore bank = Banks.synthetic(questions);
+        list = new ArrayList<>(bank.size());
+        for (int id = 0; id < bank.size(); id++) {
+            list.add(bank.get(id));
+        }
+        QuestionIndex index = new QuestionIndex(bank);
+        all = index.all();
+        filtered = index.select(List.of("Java"), EnumSet.of(Difficulty.EASY, Difficulty.MEDIUM));
+    }
+
+    @Benchmark
+    public Question shuffleList() {
+        Collections.shuffle(list);
+        return list.get(0);
+    }
+
+    @Benchmark
+    public int[] drawAll() {
+        return all.draw(QuizEngine.DEFAULT_QUESTION_COUNT, random);
+    }
+
+    @Benchmark
+    public int[] drawFiltered() {
+        return filtered.draw(QuizEngine.DEFAULT_QUESTION_COUNT, random);
+    }
+}
@@ -0,0 +1,102 @@
+package quiz;
+
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+// Times answer feedback over a long session: the original per-answer content
+// (panel, two labels, fresh fonts, colours and borders, laid out and painted)
+// against the single FeedbackOverlay being shown, painted and hidden. Runs
+// headless, so the JDialog window and its nested modal loop, which only added
+// to the original path, are left out. Reports the first and last 100 answers
+// to show whether per-answer cost stays flat. The dialog content is laid out
+// with doLayout() and checked, since validate() does nothing headless and an
+// unlaid panel paints almost nothing.
+//
+// Usage: gradle :bench:measure -Pmain=FeedbackOverlayBenchmark [-Pargs=answers]
+public class FeedbackOverlayBenchmark {
+
+    public static void main(String[] args) {
+        int answers = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        BufferedImage screen = new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB);
+        FeedbackOverlay overlay = new FeedbackOverlay();
+        overlay.setSize(800, 600);
+
+        for (int round = 0; round < 2; round++) { // first round is warm-up
+            long[] before = new long[answers];
+            long[] after = new long[answers];
+            long allocBefore = allocated();
+            for (int i = 0; i < answers; i++) {
+                boolean correct = (i & 1) == 0;
+                long start = System.nanoTime();
+                JPanel card = buildDialogContent(correct);
+                Graphics2D g = screen.createGraphics();
+                card.paint(g);
+                g.dispose();
+                before[i] = System.nanoTime() - start;
+            }
+            long allocMid = allocated();
+            for (int i = 0; i < answers; i++) {
+                boolean correct = (i & 1) == 0;
+                long start = System.nanoTime();
+                overlay.showFeedback(correct, false);
+                Graphics2D g = screen.createGraphics();
+                overlay.paintComponent(g);
+                g.dispose();
+                overlay.hideFeedback();
+                after[i] = System.nanoTime() - start;
+            }
+            long allocAfter = allocated();
+            if (round == 1) {
+                System.out.printf("%d answers%n", answers);
+                System.out.printf("%-28s %12s %12s %14s%n", "", "first 100 us", "last 100 us", "alloc/answer");
+                report("per-answer dialog content", before, (allocMid - allocBefore) / answers);
+                report("reusable FeedbackOverlay", after, (allocAfter - allocMid) / answers);
+            }
+        }
+    }
+
+    // The content the original showFeedback built inside a new JDialog each time
+    private static JPanel buildDialogContent(boolean isCorrect) {
+        JPanel contentPanel = new JPanel(new BorderLayout());
+        contentPanel.setBackground(new Color(255, 255, 255, 240));
+        contentPanel.setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createLineBorder(new Color(200, 200, 200), 2), new EmptyBorder(20, 20, 20, 20)));
+        JLabel icon = new JLabel();
+        icon.setHorizontalAlignment(SwingConstants.CENTER);
+        icon.setFont(new Font("SansSerif", Font.BOLD, 60));
+        JLabel resultText = new JLabel("", SwingConstants.CENTER);
+        resultText.setFont(new Font("SansSerif", Font.BOLD, 20));
+        resultText.setBorder(new EmptyBorder(10, 0, 0, 0));
+        Color color = isCorrect ? new Color(46, 204, 113) : new Color(231, 76, 60);
+        icon.setText(isCorrect ? "✓" : "✗");
+        icon.setForeground(color);
+        resultText.setText(isCorrect ? "Correct!" : "Incorrect");
+        resultText.setForeground(color);
+        contentPanel.add(icon, BorderLayout.CENTER);
+        contentPanel.add(resultText, BorderLayout.SOUTH);
+        contentPanel.setSize(300, 200);
+        contentPanel.doLayout(); // validate() is a no-op without a peer
+        if (icon.getWidth() == 0 || resultText.getWidth() == 0) {
+            throw new IllegalStateException("Dialog content was not laid out; the comparison would be meaningless");
+        }
+        return contentPanel;
+    }
+
+    private static void report(String name, long[] nanos, long allocPerAnswer) {
+        System.out.printf("%-28s %12.1f %12.1f %12d B%n", name, average(nanos, 0, 100),
+                          average(nanos, nanos.length - 100, nanos.length), allocPerAnswer);
+    }
+
+    private static double average(long[] nanos, int from, int to) {
+        long total = 0;
+        for (int i = from; i < to; i++) total += nanos[i];
+        return total / 1000.0 / (to - from);
+    }
+
+    private static long allocated() {
+        java.lang.management.ThreadMXBean threads = java.lang.management.ManagementFactory.getThreadMXBean();
+        return ((com.sun.management.ThreadMXBean) threads).getCurrentThreadAllocatedBytes();
+    }
+}
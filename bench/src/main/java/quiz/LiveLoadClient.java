@@ -0,0 +1,363 @@
+package quiz;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Connects thousands of players to a running LiveQuizServer over localhost,
+// hosts `rounds` rounds on it and checks that the rounds were fair: every
+// player got the question and the ticks, every answer sent inside the window
+// was counted, every deliberately late one was not, and every player got a
+// score. All connections share one selector thread.
+//
+// Each round a bot answers at a random point in the first `answerWithin` of
+// the window (correctly with probability `accuracy`), or with probability
+// `late` just after the window closes. Bots look the answer up in the same
+// bank as the server (the default one, or -Dquiz.bank).
+//
+// Reported per round: how long after "start" the question reached the first
+// and the last client, ticks per client, answers sent and the server's
+// verdicts, and the server's own fan-out and scoring times.
+//
+// Usage: java -cp quiz.jar quiz.LiveQuizServer 9090 5 < /dev/null &
+//        gradle :bench:measure -Pmain=LiveLoadClient -Pargs="clients=10000 port=9090"
+//   clients=10000 rounds=3 host=localhost port=9090 accuracy=0.7 late=0.05
+//   answerWithin=0.8 connecting=500 (connects in flight) gap=1000 (ms between rounds)
+// Each connection is a file descriptor at both ends: run the server in its own
+// process and check ulimit -n.
+public class LiveLoadClient {
+    private static final Pattern NUMBER = Pattern.compile("\"(\\w+)\":(-?\\d+)");
+    private static final Pattern QUESTION = Pattern.compile("\"question\":\"((?:[^\"\\\\]|\\\\.)*)\"");
+    private static final long LATE_BY = TimeUnit.MILLISECONDS.toNanos(300);
+    private static final long SETTLE = TimeUnit.SECONDS.toNanos(2); // for the last results after the host's summary
+
+    private final int clients;
+    private final int rounds;
+    private final InetSocketAddress address;
+    private final double accuracy;
+    private final double late;
+    private final double answerWithin;
+    private final int maxConnecting;
+    private final long gapNanos;
+    private final Map<String, int[]> answerKey = new HashMap<>(); // question text -> {correct, options}
+    private final SplittableRandom random = new SplittableRandom(42);
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(64 * 1024);
+    private final Selector selector;
+
+    private final Bot[] bots;
+    private Bot host;
+    private int opened;
+    private int connecting;
+    private int welcomed;
+    private int closed;
+    private long connectStart;
+
+    // The round, as seen from here
+    private final PriorityQueue<Long> due = new PriorityQueue<>(); // micros since base << 20 | bot
+    private final long base = System.nanoTime();
+    private int played;
+    private int round; // the server's number for it
+    private long startSent;
+    private long nextStart; // 0 = none pending
+    private long firstQuestion;
+    private long lastQuestion;
+    private int questions;
+    private int ticks;
+    private int[] key; // correct option and option count for this round
+    private int onTime;
+    private int sentLate;
+    private int counted;
+    private int onTimeRejected;
+    private int lateCounted;
+    private int scores;
+    private int ends;
+    private int errors;
+    private String summary; // the host's, until the round's results are all in
+    private long summaryAt;
+    private int totalProblems;
+    private boolean done;
+
+    private LiveLoadClient(Map<String, String> options) throws IOException {
+        clients = Integer.parseInt(options.getOrDefault("clients", "10000"));
+        rounds = Integer.parseInt(options.getOrDefault("rounds", "3"));
+        address = new InetSocketAddress(options.getOrDefault("host", "localhost"),
+                                        Integer.parseInt(options.getOrDefault("port", "9090")));
+        accuracy = Double.parseDouble(options.getOrDefault("accuracy", "0.7"));
+        late = Double.parseDouble(options.getOrDefault("late", "0.05"));
+        answerWithin = Double.parseDouble(options.getOrDefault("answerWithin", "0.8"));
+        maxConnecting = Integer.parseInt(options.getOrDefault("connecting", "500"));
+        gapNanos = TimeUnit.MILLISECONDS.toNanos(Long.parseLong(options.getOrDefault("gap", "1000")));
+        QuestionBank bank = QuestionBankLoader.loadDefault();
+        for (int id = 0; id < bank.size(); id++) {
+            Question q = bank.get(id);
+            answerKey.put(bank.text(id), new int[] {q.getCorrectIndex(), q.getOptionCount()});
+        }
+        bots = new Bot[clients];
+        selector = Selector.open();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0) throw new IllegalArgumentException("Expected key=value, got " + arg);
+            options.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        System.exit(new LiveLoadClient(options).run() ? 0 : 1);
+    }
+
+    private boolean run() throws IOException {
+        connectStart = System.nanoTime();
+        host = connect(-1);
+        while (!done) {
+            while (opened < clients && connecting < maxConnecting) bots[opened] = connect(opened++);
+            selector.select(timeout());
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey k = keys.next();
+                keys.remove();
+                Bot bot = (Bot) k.attachment();
+                if (!k.isValid()) continue;
+                if (k.isConnectable()) connected(bot);
+                else if (k.isReadable()) read(bot);
+            }
+            long now = System.nanoTime();
+            sendDueAnswers(now);
+            if (summary != null && (scores >= questions && ends >= questions || now - summaryAt > SETTLE)) {
+                endRound(now);
+            }
+            if (nextStart != 0 && now >= nextStart) startRound(now);
+            if (closed > 0 && !done) {
+                System.out.println("Lost " + closed + " connections");
+                totalProblems += closed;
+                done = true;
+            }
+        }
+        for (SelectionKey k : selector.keys()) k.channel().close();
+        selector.close();
+        System.out.println(totalProblems == 0 ? "OK: every round was delivered and scored as sent"
+                                              : "FAILED: " + totalProblems + " problems");
+        return totalProblems == 0;
+    }
+
+    private long timeout() {
+        long next = Long.MAX_VALUE;
+        if (!due.isEmpty()) next = base + TimeUnit.MICROSECONDS.toNanos(due.peek() >>> 20);
+        if (nextStart != 0) next = Math.min(next, nextStart);
+        if (summary != null) next = Math.min(next, summaryAt + SETTLE);
+        if (next == Long.MAX_VALUE) return 0;
+        return Math.max(1, TimeUnit.NANOSECONDS.toMillis(next - System.nanoTime() + 999_999));
+    }
+
+    private Bot connect(int index) throws IOException {
+        SocketChannel channel = SocketChannel.open();
+        channel.configureBlocking(false);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        Bot bot = new Bot(index, channel);
+        connecting++;
+        if (channel.connect(address)) {
+            bot.key = channel.register(selector, 0, bot);
+            connected(bot);
+        } else {
+            bot.key = channel.register(selector, SelectionKey.OP_CONNECT, bot);
+        }
+        return bot;
+    }
+
+    private void connected(Bot bot) throws IOException {
+        bot.channel.finishConnect();
+        connecting--;
+        bot.key.interestOps(SelectionKey.OP_READ);
+        if (bot.index >= 0) write(bot, "join bot" + bot.index + "\n");
+        else write(bot, "host\n");
+    }
+
+    private void write(Bot bot, String line) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) bot.channel.write(buffer); // a few bytes; the socket always has room
+        } catch (IOException e) {
+            lost(bot);
+        }
+    }
+
+    private void read(Bot bot) {
+        int n;
+        try {
+            readBuffer.clear();
+            n = bot.channel.read(readBuffer);
+        } catch (IOException e) {
+            n = -1;
+        }
+        if (n < 0) {
+            lost(bot);
+            return;
+        }
+        long now = System.nanoTime();
+        readBuffer.flip();
+        while (readBuffer.hasRemaining()) {
+            byte b = readBuffer.get();
+            if (b == '\n') {
+                message(bot, new String(bot.line, 0, bot.length, StandardCharsets.UTF_8), now);
+                bot.length = 0;
+            } else {
+                if (bot.length == bot.line.length) bot.line = Arrays.copyOf(bot.line, bot.length * 2);
+                bot.line[bot.length++] = b;
+            }
+        }
+    }
+
+    private void lost(Bot bot) {
+        if (!bot.key.isValid()) return;
+        bot.key.cancel();
+        try {
+            bot.channel.close();
+        } catch (IOException e) {
+            // counted below
+        }
+        closed++;
+    }
+
+    private void message(Bot bot, String line, long now) {
+        String type = line.substring(9, line.indexOf('"', 9)); // {"type":"...
+        switch (type) {
+            case "welcome":
+                if (++welcomed == clients) {
+                    System.out.printf("%d clients connected and joined in %d ms%n", clients,
+                                      TimeUnit.NANOSECONDS.toMillis(now - connectStart));
+                    startRound(now);
+                }
+                break;
+            case "question":
+                question(bot, line, now);
+                break;
+            case "tick":
+                ticks++;
+                break;
+            case "end":
+                ends++;
+                break;
+            case "score":
+                score(bot, line);
+                break;
+            case "summary":
+                summary = line;
+                summaryAt = now;
+                break;
+            default:
+                if (errors++ < 5) System.out.println("Server: " + line);
+                totalProblems++;
+        }
+    }
+
+    private void startRound(long now) {
+        nextStart = 0;
+        played++;
+        firstQuestion = 0;
+        lastQuestion = 0;
+        questions = ticks = onTime = sentLate = counted = onTimeRejected = lateCounted = scores = ends = 0;
+        key = null;
+        startSent = now;
+        write(host, "start\n");
+    }
+
+    private void question(Bot bot, String line, long now) {
+        if (firstQuestion == 0) firstQuestion = now;
+        lastQuestion = now;
+        questions++;
+        if (key == null) {
+            round = (int) number(line, "round");
+            Matcher text = QUESTION.matcher(line);
+            key = text.find() ? answerKey.get(text.group(1)) : null;
+            if (key == null) key = new int[] {0, 2}; // not in our bank; verdicts still count
+        }
+        long window = TimeUnit.SECONDS.toNanos(number(line, "timeLeft"));
+        long at;
+        if (random.nextDouble() < late) {
+            bot.late = true;
+            at = now + window + LATE_BY;
+            sentLate++;
+        } else {
+            bot.late = false;
+            at = now + (long) (random.nextDouble() * answerWithin * window);
+            onTime++;
+        }
+        bot.option = random.nextDouble() < accuracy ? key[0] : (key[0] + 1) % key[1];
+        due.add(TimeUnit.NANOSECONDS.toMicros(at - base) << 20 | bot.index);
+    }
+
+    private void sendDueAnswers(long now) {
+        long nowMicros = TimeUnit.NANOSECONDS.toMicros(now - base);
+        while (!due.isEmpty() && due.peek() >>> 20 <= nowMicros) {
+            Bot bot = bots[(int) (due.poll() & 0xFFFFF)];
+            if (bot.key.isValid()) write(bot, "answer " + round + " " + bot.option + "\n");
+        }
+    }
+
+    private void score(Bot bot, String line) {
+        scores++;
+        boolean answered = line.contains("\"answered\":true");
+        if (answered) counted++;
+        if (answered && bot.late) lateCounted++;
+        if (!answered && !bot.late) onTimeRejected++;
+    }
+
+    private void endRound(long now) {
+        String line = summary;
+        summary = null;
+        long toFirst = firstQuestion - startSent;
+        long toLast = lastQuestion - startSent;
+        int problems = (clients - questions) + (clients - scores) + (clients - ends) + onTimeRejected + lateCounted;
+        totalProblems += problems;
+        System.out.printf("Round %d: question reached first client in %.1f ms, last in %.1f ms; %.1f ticks per client%n",
+                          round, toFirst / 1e6, toLast / 1e6, (double) ticks / clients);
+        System.out.printf("  sent %d on time, %d late; server counted %d (on time rejected %d, late counted %d); "
+                          + "%d questions, %d ends, %d scores received%n",
+                          onTime, sentLate, counted, onTimeRejected, lateCounted, questions, ends, scores);
+        System.out.printf("  server: %d players, %d answered, %d correct, fan-out %.1f ms, scored in %.2f ms%n",
+                          number(line, "players"), number(line, "answered"), number(line, "correct"),
+                          number(line, "fanOutMicros") / 1e3, number(line, "scoreMicros") / 1e3);
+        if (played == rounds) {
+            done = true;
+        } else {
+            nextStart = now + gapNanos;
+        }
+    }
+
+    private static long number(String json, String name) {
+        Matcher m = NUMBER.matcher(json);
+        while (m.find()) {
+            if (m.group(1).equals(name)) return Long.parseLong(m.group(2));
+        }
+        return -1;
+    }
+
+    private static final class Bot {
+        final int index; // -1 for the host
+        final SocketChannel channel;
+        SelectionKey key;
+        byte[] line = new byte[512];
+        int length;
+        boolean late;
+        int option;
+
+        Bot(int index, SocketChannel channel) {
+            this.index = index;
+            this.channel = channel;
+        }
+    }
+}
@@ -0,0 +1,349 @@
+package quiz;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Drives simulated players through complete quizzes, either against
+// QuizEngine in this JVM or against a running QuizServer over HTTP, and
+// reports sessions/s, answer latency percentiles, allocation rate and GC
+// pauses for the run.
+//
+// Bots are event-driven: each one waits out its think time on a shared
+// scheduler rather than a thread of its own, so thousands of them cost a few
+// threads. A bot answers correctly with probability `accuracy`, and lets a
+// question run out its 15 s clock with probability `timeouts`, exercising
+// the timeout path (engine expiry in-process; a timedOut answer from the
+// server over HTTP). A bot that finishes starts another session until
+// `sessions` have completed.
+//
+// In-process, answer latency is the service time of answer() and next(); over
+// HTTP it is the round trip of POST /answer. Allocation and GC figures are
+// for this JVM, so over HTTP they describe the client; see the server's
+// /metrics for its side.
+//
+// Usage: gradle :bench:measure -Pmain=LoadGenerator -Pargs="key=value ..."
+//   players=1000 sessions=10000 questions=30 think=100 (mean ms) accuracy=0.7
+//   timeouts=0.01 threads=<cores> adaptive=false url=http://localhost:8080 (HTTP mode)
+public class LoadGenerator {
+    private static final Pattern NUMBER = Pattern.compile("\"(\\w+)\":(-?\\d+)");
+    private static final Pattern QUESTION = Pattern.compile("\"question\":\"((?:[^\"\\\\]|\\\\.)*)\"");
+    private static final long MAX_LATENCY = 1L << 40; // ns; ~18 minutes
+
+    private final int players;
+    private final int sessions;
+    private final int questions;
+    private final long thinkNanos;
+    private final double accuracy;
+    private final double timeouts;
+    private final boolean adaptive;
+    private final URI server; // null in-process
+    private final ScheduledExecutorService scheduler;
+    private final HttpClient http;
+    private final QuestionIndex.Selection selection;
+    private final AdaptiveSelector selector;
+    private final Map<String, Integer> answerKey; // HTTP: question text -> correct option
+
+    private final AtomicInteger started = new AtomicInteger();
+    private final CountDownLatch done;
+    private final AtomicLong answers = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLongArray latency = new AtomicLongArray(LatencyHistogram.bucket(MAX_LATENCY) + 1);
+
+    private LoadGenerator(Map<String, String> options) throws Exception {
+        players = Integer.parseInt(options.getOrDefault("players", "1000"));
+        sessions = Integer.parseInt(options.getOrDefault("sessions", "10000"));
+        questions = Integer.parseInt(options.getOrDefault("questions", "30"));
+        thinkNanos = TimeUnit.MILLISECONDS.toNanos(Long.parseLong(options.getOrDefault("think", "100")));
+        accuracy = Double.parseDouble(options.getOrDefault("accuracy", "0.7"));
+        timeouts = Double.parseDouble(options.getOrDefault("timeouts", "0.01"));
+        adaptive = Boolean.parseBoolean(options.getOrDefault("adaptive", "false"));
+        String url = options.get("url");
+        server = url == null ? null : URI.create(url.endsWith("/") ? url : url + "/");
+        int threads = Integer.parseInt(options.getOrDefault("threads",
+                                                            String.valueOf(Runtime.getRuntime().availableProcessors())));
+        scheduler = Executors.newScheduledThreadPool(threads, r -> {
+            Thread t = new Thread(r, "bot");
+            t.setDaemon(true);
+            return t;
+        });
+        done = new CountDownLatch(sessions);
+        if (server == null) {
+            QuestionIndex index = new QuestionIndex(Banks.bundled());
+            selection = index.all();
+            selector = adaptive ? AdaptiveSelector.build(selection, null) : null;
+            answerKey = null;
+            http = null;
+        } else {
+            selection = null;
+            selector = null;
+            // The server only reveals the answer afterwards; bots look it up in the
+            // same bank (the default one, or -Dquiz.bank) to hit their accuracy
+            QuestionBank bank = QuestionBankLoader.loadDefault();
+            answerKey = new HashMap<>();
+            for (int id = 0; id < bank.size(); id++) answerKey.put(bank.text(id), bank.get(id).getCorrectIndex());
+            http = HttpClient.newBuilder().executor(scheduler).build();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0) throw new IllegalArgumentException("Expected key=value, got " + arg);
+            options.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        new LoadGenerator(options).run();
+    }
+
+    private void run() throws InterruptedException {
+        GcPauses gc = new GcPauses();
+        long gcCount = 0;
+        long gcTime = 0;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            gcCount -= bean.getCollectionCount();
+            gcTime -= bean.getCollectionTime();
+        }
+        long allocated = -allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < Math.min(players, sessions); i++) {
+            int bot = i;
+            scheduler.execute(() -> startSession(new SplittableRandom(bot)));
+        }
+        done.await();
+        long nanos = System.nanoTime() - start;
+        allocated += allocatedBytes();
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            gcCount += bean.getCollectionCount();
+            gcTime += bean.getCollectionTime();
+        }
+        scheduler.shutdownNow();
+        gc.stop();
+
+        double seconds = nanos / 1e9;
+        System.out.printf("%s: %d players, %d sessions x %d questions, think %d ms, accuracy %.2f, timeouts %.3f%n",
+                          server == null ? "in-process" : server.toString(), players, sessions, questions,
+                          TimeUnit.NANOSECONDS.toMillis(thinkNanos), accuracy, timeouts);
+        System.out.printf("elapsed         %.1f s%n", seconds);
+        System.out.printf("sessions/s      %.1f%n", sessions / seconds);
+        System.out.printf("answers/s       %.1f (%d answered, %d timed out, %d errors)%n",
+                          answers.get() / seconds, answers.get(), timedOut.get(), errors.get());
+        System.out.printf("answer latency  p50 %s  p90 %s  p99 %s  p99.9 %s  max %s%n",
+                          micros(percentile(50)), micros(percentile(90)), micros(percentile(99)),
+                          micros(percentile(99.9)), micros(percentile(100)));
+        System.out.printf("allocation      %.1f MB/s (%.1f KB per session)%n",
+                          allocated / seconds / 1e6, allocated / 1024.0 / sessions);
+        System.out.printf("gc pauses       %d, %d ms total, %d ms max (%d collections, %d ms in collectors)%n",
+                          gc.count.get(), gc.total.get(), gc.max.get(), gcCount, gcTime);
+    }
+
+    // ---- in-process and HTTP bots ----
+
+    private void startSession(SplittableRandom random) {
+        if (started.incrementAndGet() > sessions) return;
+        if (server == null) {
+            QuizEngine engine = adaptive ? new QuizEngine(selector, questions, random.split())
+                                         : new QuizEngine(selection, questions, random.split());
+            think(() -> play(engine, random), random);
+        } else {
+            String query = "sessions?count=" + questions + (adaptive ? "&adaptive=true" : "");
+            send("POST", query, null).whenComplete((body, error) -> {
+                if (error != null) {
+                    failed(random);
+                    return;
+                }
+                long session = number(body, "session");
+                think(() -> fetch(session, random), random);
+            });
+        }
+    }
+
+    private void play(QuizEngine engine, SplittableRandom random) {
+        if (random.nextDouble() < timeouts) {
+            // Come back just after the deadline; the engine expires the question
+            long wait = engine.getDeadline() - System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(50);
+            scheduler.schedule(() -> {
+                long t0 = System.nanoTime();
+                if (!engine.isAwaitingAnswer()) timedOut.incrementAndGet();
+                engine.next();
+                record(System.nanoTime() - t0);
+                continueOrFinish(engine.isFinished(), () -> play(engine, random), random);
+            }, wait, TimeUnit.NANOSECONDS);
+            return;
+        }
+        int option = choose(engine.getCurrentQuestion().getCorrectIndex(),
+                            engine.getCurrentQuestion().getOptionCount(), random);
+        long t0 = System.nanoTime();
+        engine.answer(option);
+        engine.next();
+        record(System.nanoTime() - t0);
+        answers.incrementAndGet();
+        continueOrFinish(engine.isFinished(), () -> play(engine, random), random);
+    }
+
+    // GET the question, think (or let it time out), then POST an answer
+    private void fetch(long session, SplittableRandom random) {
+        send("GET", "sessions/" + session + "/question", null).whenComplete((body, error) -> {
+            if (error != null) {
+                failed(random);
+                return;
+            }
+            if (body.contains("\"finished\":true")) {
+                continueOrFinish(true, null, random);
+                return;
+            }
+            int options = body.substring(body.indexOf("\"options\":[")).split("\",\"").length;
+            Matcher text = QUESTION.matcher(body);
+            Integer correct = text.find() ? answerKey.get(text.group(1).replace("\\\"", "\"").replace("\\\\", "\\")) : null;
+            boolean timeout = random.nextDouble() < timeouts;
+            Runnable answer = () -> {
+                int option = correct != null ? choose(correct, options, random) : random.nextInt(options);
+                long t0 = System.nanoTime();
+                send("POST", "sessions/" + session + "/answer", "option=" + option).whenComplete((reply, e) -> {
+                    if (e != null) {
+                        failed(random);
+                        return;
+                    }
+                    record(System.nanoTime() - t0);
+                    if (reply.contains("\"timedOut\":true")) timedOut.incrementAndGet(); else answers.incrementAndGet();
+                    continueOrFinish(reply.contains("\"finished\":true"), () -> fetch(session, random), random);
+                });
+            };
+            if (timeout) {
+                scheduler.schedule(answer, number(body, "timeLeft") * 1000 + 100, TimeUnit.MILLISECONDS);
+            } else {
+                think(answer, random);
+            }
+        });
+    }
+
+    private CompletableFuture<String> send(String method, String path, String body) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(server.resolve(path)).timeout(Duration.ofSeconds(30));
+        request.method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body));
+        return http.sendAsync(request.build(), HttpResponse.BodyHandlers.ofString()).thenApply(response -> {
+            if (response.statusCode() >= 300) throw new IllegalStateException(response.statusCode() + " " + response.body());
+            return response.body();
+        });
+    }
+
+    private void continueOrFinish(boolean finished, Runnable next, SplittableRandom random) {
+        if (!finished) {
+            think(next, random);
+        } else {
+            done.countDown();
+            startSession(random); // this bot plays again
+        }
+    }
+
+    private void failed(SplittableRandom random) {
+        errors.incrementAndGet();
+        done.countDown(); // give up on this session
+        startSession(random);
+    }
+
+    // Waits 0.5x to 1.5x the mean think time
+    private void think(Runnable next, SplittableRandom random) {
+        if (thinkNanos == 0) {
+            scheduler.execute(next);
+        } else {
+            scheduler.schedule(next, thinkNanos / 2 + random.nextLong(thinkNanos + 1), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private int choose(int correct, int options, SplittableRandom random) {
+        if (options < 2 || random.nextDouble() < accuracy) return correct;
+        int wrong = random.nextInt(options - 1);
+        return wrong >= correct ? wrong + 1 : wrong;
+    }
+
+    private static long number(String json, String key) {
+        Matcher m = NUMBER.matcher(json);
+        while (m.find()) {
+            if (m.group(1).equals(key)) return Long.parseLong(m.group(2));
+        }
+        throw new IllegalStateException("No " + key + " in " + json);
+    }
+
+    // ---- measurement ----
+
+    private void record(long nanos) {
+        latency.incrementAndGet(LatencyHistogram.bucket(Math.min(nanos, MAX_LATENCY)));
+    }
+
+    private long percentile(double percent) {
+        long total = 0;
+        for (int i = 0; i < latency.length(); i++) total += latency.get(i);
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(percent / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < latency.length(); i++) {
+            seen += latency.get(i);
+            if (seen >= rank) return LatencyHistogram.highestValue(i);
+        }
+        return MAX_LATENCY;
+    }
+
+    private static String micros(long nanos) {
+        return nanos < 10_000_000 ? String.format("%.1f us", nanos / 1e3) : String.format("%.1f ms", nanos / 1e6);
+    }
+
+    // Bytes allocated so far by this JVM's live threads
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long sum = 0;
+        for (long bytes : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            if (bytes > 0) sum += bytes;
+        }
+        return sum;
+    }
+
+    // Individual pause times from the collectors' notifications
+    private static final class GcPauses {
+        final AtomicLong count = new AtomicLong();
+        final AtomicLong total = new AtomicLong();
+        final AtomicLong max = new AtomicLong();
+        private volatile boolean running = true;
+
+        GcPauses() {
+            for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+                ((NotificationEmitter) bean).addNotificationListener((notification, handback) -> {
+                    if (!running || !notification.getType().equals(
+                            GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION)) return;
+                    GarbageCollectionNotificationInfo info =
+                        GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+                    if (info.getGcName().endsWith("Cycles")) return; // ZGC/Shenandoah cycles are not pauses
+                    long ms = info.getGcInfo().getDuration();
+                    count.incrementAndGet();
+                    total.addAndGet(ms);
+                    max.accumulateAndGet(ms, Math::max);
+                }, null, null);
+            }
+        }
+
+        void stop() {
+            running = false;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package quiz;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Cost QuizMetrics adds to each answer: histogram and counter updates for the
+// question and its category, plus the Flight Recorder event. Measured alone,
+// with four threads answering the same small bank (so they contend on the same
+// histograms), and with a JFR recording running so the event is committed.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsBenchmark {
+    private Question[] questions;
+
+    @Setup
+    public void setUp() throws Exception {
+        QuestionStore bank = Banks.bundled();
+        questions = new Question[bank.size()];
+        for (int id = 0; id < bank.size(); id++) {
+            questions[id] = bank.get(id);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Benchmark
+    public void recordAnswer(Cursor cursor) {
+        record(cursor);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void recordAnswerContended(Cursor cursor) {
+        record(cursor);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-XX:StartFlightRecording=settings=default")
+    public void recordAnswerWithRecording(Cursor cursor) {
+        record(cursor);
+    }
+
+    private void record(Cursor cursor) {
+        int i = cursor.next;
+        cursor.next = i + 1 == questions.length ? 0 : i + 1;
+        QuizMetrics.shared().answered(questions[i], i & 3, (i & 1) == 0, 1_000_000L * (500 + i * 37));
+    }
+}
@@ -0,0 +1,106 @@
+package quiz;
+
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+
+// Times the progress indicator's share of a question transition at growing
+// quiz lengths. The original path keeps one JLabel per question and, on every
+// transition, sets the text and a fresh Color on all of them, then lays out
+// and paints the panel. ProgressStrip marks the answered cell and the new
+// current one and paints just those (plus its summary once it pages). Runs
+// headless into an offscreen surface.
+//
+// Usage: gradle :bench:measure -Pmain=ProgressStripBenchmark [-Pargs=transitions]
+public class ProgressStripBenchmark {
+
+    public static void main(String[] args) {
+        int transitions = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        BufferedImage screen = new BufferedImage(800, 40, BufferedImage.TYPE_INT_ARGB);
+        for (int round = 0; round < 2; round++) { // first round is warm-up
+            if (round == 1) {
+                System.out.printf("%d transitions, 800 px wide%n", transitions);
+                System.out.printf("%-10s %-22s %14s %16s %12s%n", "questions", "", "us/transition",
+                                  "alloc/transition", "setup us");
+            }
+            for (int count : new int[] {30, 1_000, 10_000}) {
+                long start = System.nanoTime();
+                JPanel panel = new JPanel(new FlowLayout());
+                panel.setBorder(new EmptyBorder(10, 0, 0, 0));
+                JLabel[] labels = new JLabel[count];
+                for (int i = 0; i < count; i++) {
+                    labels[i] = new JLabel("○");
+                    labels[i].setFont(new Font("SansSerif", Font.BOLD, 20));
+                    panel.add(labels[i]);
+                }
+                panel.setSize(800, 40);
+                long labelSetup = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                ProgressStrip strip = new ProgressStrip();
+                strip.setBorder(new EmptyBorder(0, 10, 10, 10));
+                strip.setSize(800, 40);
+                strip.reset(count, 0);
+                long stripSetup = System.nanoTime() - start;
+
+                int n = Math.min(transitions, count > 1_000 ? transitions / 10 : transitions);
+                long alloc0 = allocated();
+                start = System.nanoTime();
+                for (int t = 0; t < n; t++) {
+                    int current = (t + 1) % count;
+                    for (int i = 0; i < count; i++) {
+                        labels[i].setText(i <= current ? "●" : "○");
+                        labels[i].setForeground(i < current ? new Color(255, 255, 255, 230)
+                                                : i == current ? new Color(255, 215, 0, 230)
+                                                : new Color(255, 255, 255, 150));
+                    }
+                    panel.doLayout();
+                    Graphics2D g = screen.createGraphics();
+                    panel.paint(g);
+                    g.dispose();
+                }
+                long labelNanos = (System.nanoTime() - start) / n;
+                long labelAlloc = (allocated() - alloc0) / n;
+
+                alloc0 = allocated();
+                start = System.nanoTime();
+                for (int t = 0; t < transitions; t++) {
+                    int answered = t % count;
+                    int current = (t + 1) % count;
+                    if (current == 0) strip.reset(count, 0);
+                    strip.setAnswered(answered, (t & 3) != 0);
+                    strip.setCurrent(current);
+                    // What the RepaintManager would paint: the two changed cells, and the
+                    // summary (its own component) once the strip pages
+                    Rectangle dirty = strip.cellBounds(current).union(strip.cellBounds(answered));
+                    Graphics2D g = screen.createGraphics();
+                    g.clip(dirty);
+                    strip.paint(g);
+                    g.dispose();
+                    if (count > 30) {
+                        Rectangle at = strip.summary.getBounds();
+                        g = screen.createGraphics();
+                        g.translate(at.x, at.y);
+                        g.clipRect(0, 0, at.width, at.height);
+                        strip.summary.paint(g);
+                        g.dispose();
+                    }
+                }
+                long stripNanos = (System.nanoTime() - start) / transitions;
+                long stripAlloc = (allocated() - alloc0) / transitions;
+                if (round == 1) {
+                    System.out.printf("%-10d %-22s %14.1f %14d B %12.0f%n", count, "JLabel per question",
+                                      labelNanos / 1000.0, labelAlloc, labelSetup / 1000.0);
+                    System.out.printf("%-10s %-22s %14.1f %14d B %12.0f%n", "", "ProgressStrip",
+                                      stripNanos / 1000.0, stripAlloc, stripSetup / 1000.0);
+                }
+            }
+        }
+    }
+
+    private static long allocated() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+}
@@ -0,0 +1,120 @@
+package quiz;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.SplittableRandom;
+
+// Compares retained heap and GC work for N synthetic questions held as
+// one-object-per-question (the original String[] + correctAnswer layout) versus
+// the columnar QuestionStore. Options are drawn from a small shared vocabulary
+// so repeated strings such as "Both A and B" behave as they do in real banks.
+//
+// Usage: gradle :bench:measure -Pmain=QuestionStoreFootprint [-Pargs=questions]   (default 1,000,000)
+public class QuestionStoreFootprint {
+
+    // Layout of the original Question class, kept here only for comparison
+    static final class LegacyQuestion {
+        final String questionText;
+        final String[] options;
+        final String correctAnswer;
+
+        LegacyQuestion(String questionText, String[] options, String correctAnswer) {
+            this.questionText = questionText;
+            this.options = options;
+            this.correctAnswer = correctAnswer;
+        }
+    }
+
+    private static final String[] SHARED = {
+        "Both A and B", "None of the above", "Unit Testing", "Integration Testing",
+        "System Testing", "Acceptance Testing", "true", "false"
+    };
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        Result legacy = measure(() -> {
+            LegacyQuestion[] questions = new LegacyQuestion[n];
+            SplittableRandom random = new SplittableRandom(42);
+            for (int i = 0; i < n; i++) {
+                String[] options = options(random, i);
+                // Each parsed row produced its own String instances
+                for (int o = 0; o < options.length; o++) options[o] = new String(options[o]);
+                questions[i] = new LegacyQuestion("Question number " + i + "?", options, new String(options[1]));
+            }
+            return questions;
+        });
+
+        Result store = measure(() -> {
+            QuestionStore.Builder builder = QuestionStore.builder();
+            SplittableRandom random = new SplittableRandom(42);
+            for (int i = 0; i < n; i++) {
+                builder.add("Question number " + i + "?", options(random, i), 1, "General", Difficulty.MEDIUM);
+            }
+            return builder.build();
+        });
+
+        System.out.printf("questions: %,d%n", n);
+        System.out.printf("%-14s %14s %12s %10s %10s%n", "layout", "retained (MB)", "bytes/q", "gc count", "gc ms");
+        legacy.print("String[]/obj", n);
+        store.print("QuestionStore", n);
+        System.out.printf("heap per question reduced by %.1f%%%n",
+                          100.0 * (legacy.retained - store.retained) / legacy.retained);
+    }
+
+    private static String[] options(SplittableRandom random, int i) {
+        String[] options = new String[4];
+        for (int o = 0; o < 4; o++) {
+            options[o] = random.nextInt(4) == 0 ? SHARED[random.nextInt(SHARED.length)]
+                                                : "Option " + (random.nextInt(5_000));
+        }
+        return options;
+    }
+
+    private static Result measure(java.util.function.Supplier<Object> build) {
+        long before = usedHeap();
+        long gcCount = gcCount();
+        long gcTime = gcTime();
+        Object retained = build.get();
+        Result result = new Result(usedHeap() - before, gcCount() - gcCount, gcTime() - gcTime);
+        if (retained.hashCode() == 42) System.out.print(""); // keep alive until measured
+        return result;
+    }
+
+    private static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    private static long gcCount() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) total += gc.getCollectionCount();
+        return total;
+    }
+
+    private static long gcTime() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) total += gc.getCollectionTime();
+        return total;
+    }
+
+    private static final class Result {
+        final long retained;
+        final long gcCount;
+        final long gcMillis;
+
+        Result(long retained, long gcCount, long gcMillis) {
+            this.retained = retained;
+            this.gcCount = gcCount;
+            this.gcMillis = gcMillis;
+        }
+
+        void print(String name, int n) {
+            System.out.printf("%-14s %14.1f %12.1f %10d %10d%n",
+                              name, retained / 1048576.0, (double) retained / n, gcCount, gcMillis);
+        }
+    }
+}
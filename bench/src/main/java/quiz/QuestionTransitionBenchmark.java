@@ -0,0 +1,121 @@
+package quiz;
+
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+
+// Times the EDT work of one question transition: setting the question and
+// option text and colours, laying out and painting the question area. The
+// original path wraps every string in <html><div style='text-align: center'>
+// and allocates a Color per button; the current one uses WrappedLabel,
+// OptionButton and the shared Theme. Runs headless into an offscreen surface.
+//
+// Usage: gradle :bench:measure -Pmain=QuestionTransitionBenchmark [-Pargs=transitions]
+public class QuestionTransitionBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int transitions = args.length > 0 ? Integer.parseInt(args[0]) : 3000;
+        QuestionBank bank = QuestionBankLoader.loadDefault();
+        BufferedImage screen = new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB);
+
+        JLabel htmlQuestion = new JLabel("Question", SwingConstants.CENTER);
+        htmlQuestion.setFont(new Font("SansSerif", Font.BOLD, 20));
+        htmlQuestion.setOpaque(true);
+        htmlQuestion.setBackground(new Color(40, 40, 40));
+        htmlQuestion.setBorder(BorderFactory.createCompoundBorder(
+            BorderFactory.createLineBorder(new Color(80, 80, 80)), new EmptyBorder(20, 20, 20, 20)));
+        JButton[] htmlOptions = new JButton[4];
+        for (int i = 0; i < 4; i++) {
+            htmlOptions[i] = new JButton();
+            htmlOptions[i].setFont(new Font("SansSerif", Font.PLAIN, 16));
+            htmlOptions[i].setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createLineBorder(new Color(200, 200, 200)), new EmptyBorder(15, 15, 15, 15)));
+        }
+        JPanel before = area(htmlQuestion, htmlOptions);
+
+        WrappedLabel question = new WrappedLabel("Question");
+        question.setFont(Theme.QUESTION_FONT);
+        question.setOpaque(true);
+        question.setBackground(Theme.QUESTION_BACKGROUND);
+        question.setForeground(Color.WHITE);
+        question.setBorder(Theme.QUESTION_BORDER);
+        OptionButton[] options = new OptionButton[4];
+        for (int i = 0; i < 4; i++) {
+            options[i] = new OptionButton();
+            options[i].setFont(Theme.BODY_FONT);
+            options[i].setBorder(Theme.OPTION_BORDER);
+        }
+        JPanel after = area(question, options);
+
+        for (int round = 0; round < 2; round++) { // first round is warm-up
+            long alloc0 = allocated();
+            long start = System.nanoTime();
+            for (int t = 0; t < transitions; t++) {
+                int id = t % bank.size();
+                htmlQuestion.setText("<html><div style='text-align: center; color: white;'>" +
+                                     "Q" + (t + 1) + ": " + bank.text(id) + "</div></html>");
+                for (int i = 0; i < 4; i++) {
+                    htmlOptions[i].setText("<html><div style='text-align: center;'>" + bank.option(id, i) + "</div></html>");
+                    htmlOptions[i].setBackground(new Color(255, 255, 255, 230));
+                    htmlOptions[i].setForeground(Color.BLACK);
+                }
+                paint(before, screen);
+            }
+            long htmlNanos = System.nanoTime() - start;
+            long alloc1 = allocated();
+            start = System.nanoTime();
+            for (int t = 0; t < transitions; t++) {
+                int id = t % bank.size();
+                question.setText("Q" + (t + 1) + ": " + bank.text(id));
+                for (int i = 0; i < 4; i++) {
+                    options[i].setOptionText(bank.option(id, i));
+                    options[i].setBackground(Theme.OPTION_BACKGROUND);
+                    options[i].setForeground(Color.BLACK);
+                }
+                paint(after, screen);
+            }
+            long plainNanos = System.nanoTime() - start;
+            long alloc2 = allocated();
+            if (round == 1) {
+                System.out.printf("%d transitions over %d questions, 800x600%n", transitions, bank.size());
+                System.out.printf("%-26s %14s %16s%n", "", "us/transition", "alloc/transition");
+                System.out.printf("%-26s %14.1f %14d B%n", "HTML labels, fresh Colors",
+                                  htmlNanos / 1000.0 / transitions, (alloc1 - alloc0) / transitions);
+                System.out.printf("%-26s %14.1f %14d B%n", "WrappedLabel + Theme",
+                                  plainNanos / 1000.0 / transitions, (alloc2 - alloc1) / transitions);
+            }
+        }
+    }
+
+    private static JPanel area(JComponent question, JButton[] options) {
+        JPanel area = new JPanel(new BorderLayout(10, 10));
+        area.add(question, BorderLayout.CENTER);
+        JPanel optionsPanel = new JPanel(new GridLayout(2, 2, 15, 15));
+        optionsPanel.setBorder(new EmptyBorder(20, 30, 20, 30));
+        for (JButton option : options) optionsPanel.add(option);
+        area.add(optionsPanel, BorderLayout.SOUTH);
+        area.setSize(800, 600);
+        return area;
+    }
+
+    private static void paint(JPanel area, BufferedImage screen) {
+        layout(area);
+        Graphics2D g = screen.createGraphics();
+        area.paint(g);
+        g.dispose();
+    }
+
+    // Headless containers have no peer, so validate() is a no-op; lay out the tree as it would
+    private static void layout(Container container) {
+        container.doLayout();
+        for (Component child : container.getComponents()) {
+            if (child instanceof Container) layout((Container) child);
+        }
+    }
+
+    private static long allocated() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+}
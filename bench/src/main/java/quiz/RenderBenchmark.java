@@ -0,0 +1,94 @@
+package quiz;
+
+import org.openjdk.jmh.annotations.*;
+
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Headless offscreen rendering of the game window's parts at 800x600: the
+// cached BackgroundPanel repaint, a full backdrop render (what a resize
+// costs), repainting the option grid, and a question transition that sets new
+// option text, lays the grid out and paints it.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class RenderBenchmark {
+    private BufferedImage screen;
+    private BackgroundPanel background;
+    private JPanel optionsPanel;
+    private OptionButton[] buttons;
+    private QuestionBank bank;
+    private int cursor;
+
+    @Setup
+    public void setUp() throws IOException {
+        screen = new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB);
+        background = new BackgroundPanel(false);
+        background.setSize(800, 600);
+
+        bank = Banks.bundled();
+        optionsPanel = new JPanel(new GridLayout(2, 2, 15, 15));
+        optionsPanel.setBorder(new EmptyBorder(20, 30, 20, 30));
+        buttons = new OptionButton[4];
+        for (int i = 0; i < 4; i++) {
+            buttons[i] = new OptionButton();
+            buttons[i].setFont(Theme.BODY_FONT);
+            buttons[i].setBorder(Theme.OPTION_BORDER);
+            buttons[i].setBackground(Theme.OPTION_BACKGROUND);
+            buttons[i].setOptionText(bank.option(0, i));
+            optionsPanel.add(buttons[i]);
+        }
+        optionsPanel.setSize(800, 220);
+        layout(optionsPanel);
+    }
+
+    @Benchmark
+    public BufferedImage backgroundRepaint() {
+        Graphics2D g = screen.createGraphics();
+        background.paintComponent(g);
+        g.dispose();
+        return screen;
+    }
+
+    @Benchmark
+    public BufferedImage backgroundRender() {
+        Graphics2D g = screen.createGraphics();
+        background.render(g, 800, 600);
+        g.dispose();
+        return screen;
+    }
+
+    @Benchmark
+    public BufferedImage optionsRepaint() {
+        Graphics2D g = screen.createGraphics();
+        optionsPanel.paint(g);
+        g.dispose();
+        return screen;
+    }
+
+    @Benchmark
+    public BufferedImage optionsTransition() {
+        int id = cursor;
+        cursor = cursor + 1 == bank.size() ? 0 : cursor + 1;
+        for (int i = 0; i < buttons.length; i++) {
+            buttons[i].setOptionText(bank.option(id, i));
+        }
+        layout(optionsPanel);
+        return optionsRepaint();
+    }
+
+    // Headless containers have no peer, so validate() is a no-op; lay out the tree as it would
+    private static void layout(Container container) {
+        container.doLayout();
+        for (Component child : container.getComponents()) {
+            if (child instanceof Container) layout((Container) child);
+        }
+    }
+}
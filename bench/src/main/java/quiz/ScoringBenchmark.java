@@ -0,0 +1,73 @@
+package quiz;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Scoring one answer. The original UI stripped its <html><div> wrapper from the
+// chosen button and from every button while highlighting, and compared answer
+// text with equalsIgnoreCase; QuizEngine compares option indices. The engine
+// benchmark includes advancing to the next question (and a restart every
+// DEFAULT_QUESTION_COUNT answers), as the game does.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScoringBenchmark {
+    private static final String OPEN = "<html><div style='text-align: center;'>";
+    private static final String CLOSE = "</div></html>";
+
+    private String[][] buttonTexts;
+    private String[] answers;
+    private int[] chosen;
+    private int cursor;
+    private QuizEngine engine;
+
+    @Setup
+    public void setUp() throws IOException {
+        QuestionStore bank = Banks.bundled();
+        int n = bank.size();
+        buttonTexts = new String[n][];
+        answers = new String[n];
+        chosen = new int[n];
+        SplittableRandom random = new SplittableRandom(7);
+        for (int id = 0; id < n; id++) {
+            Question q = bank.get(id);
+            buttonTexts[id] = new String[q.getOptionCount()];
+            for (int i = 0; i < buttonTexts[id].length; i++) {
+                buttonTexts[id][i] = OPEN + q.getOption(i) + CLOSE;
+            }
+            answers[id] = q.getCorrectAnswer();
+            chosen[id] = random.nextInt(q.getOptionCount());
+        }
+        engine = new QuizEngine(new QuestionIndex(bank).all(), QuizEngine.DEFAULT_QUESTION_COUNT, random);
+    }
+
+    @Benchmark
+    public int htmlTextCompare() {
+        int id = cursor;
+        cursor = cursor + 1 == answers.length ? 0 : cursor + 1;
+        String[] buttons = buttonTexts[id];
+        String answer = buttons[chosen[id]].replace(OPEN, "").replace(CLOSE, "");
+        boolean correct = answer.equalsIgnoreCase(answers[id]);
+        int highlighted = -1;
+        for (int i = 0; i < buttons.length; i++) {
+            String text = buttons[i].replace(OPEN, "").replace(CLOSE, "");
+            if (text.equalsIgnoreCase(answers[id])) highlighted = i;
+        }
+        return correct ? highlighted : ~highlighted;
+    }
+
+    @Benchmark
+    public int engineAnswerAndAdvance() {
+        int option = chosen[engine.getCurrentQuestion().getId()];
+        int highlighted = engine.getCurrentQuestion().getCorrectIndex();
+        boolean correct = engine.answer(option);
+        if (!engine.next()) engine.restart();
+        return correct ? highlighted : ~highlighted;
+    }
+}
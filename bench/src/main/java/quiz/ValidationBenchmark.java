@@ -0,0 +1,61 @@
+package quiz;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+// One QuestionBankValidator pass over a synthetic bank, on the heap and
+// memory-mapped, in a fork/join pool of `threads` workers (a parallel stream
+// runs in the pool it is started from). The synthetic options repeat often
+// enough to exercise the repeated-option path.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class ValidationBenchmark {
+    @Param({"100000", "2000000"})
+    public int questions;
+
+    @Param({"1", "4"})
+    public int threads;
+
+    private Path dir;
+    private QuestionStore store;
+    private QuestionBank mapped;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setUp() throws IOException {
+        store = Banks.synthetic(questions);
+        dir = Files.createTempDirectory("quiz-bench");
+        Path qbank = dir.resolve("questions.qbank");
+        Banks.writeQbank(qbank, store);
+        mapped = QuestionBankFile.open(qbank);
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        pool.shutdown();
+        mapped = null;
+        Files.deleteIfExists(dir.resolve("questions.qbank"));
+        Files.deleteIfExists(dir);
+    }
+
+    @Benchmark
+    public QuestionBankValidator.Report heap() throws InterruptedException, ExecutionException {
+        return pool.submit(() -> QuestionBankValidator.validate(store)).get();
+    }
+
+    @Benchmark
+    public QuestionBankValidator.Report mapped() throws InterruptedException, ExecutionException {
+        return pool.submit(() -> QuestionBankValidator.validate(mapped)).get();
+    }
+}
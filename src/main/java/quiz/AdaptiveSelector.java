@@ -0,0 +1,204 @@
+package quiz;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.SplittableRandom;
+
+// Adaptive question picking, Elo/Rasch style: every question has a difficulty
+// rating b and every session an ability estimate theta on the same logit
+// scale, and P(correct) = 1 / (1 + e^(b - theta)). The next question is the
+// unasked one whose rating is closest to theta, where a 1PL item tells us the
+// most about the player, and theta moves by K * (outcome - P) after each
+// answer, with K shrinking as the session goes on.
+//
+// A selector is built once per question selection and shared by all sessions:
+// the questions sorted by rating, as parallel float/int arrays, plus the
+// inverse map from id to sorted position over the selection's id span, so a
+// resumed session finds each asked question in O(1). A Session marks its
+// asked positions in a BitSet, O(1) per question. A pick binary-searches the
+// target rating, O(log n), then nextClearBit/previousClearBit step past
+// already-asked neighbours 64 positions per word. The bits grow only as far as
+// the highest asked position, so a session costs at most n/8 bytes.
+//
+// Ratings come from the questions' Difficulty tags (EASY -1, MEDIUM 0, HARD +1)
+// or, once a question has MIN_ATTEMPTS in AnswerStats, from its observed
+// success rate. Tag-only ratings are spread by +-0.2 per id so a bank with three
+// tags still offers distinct neighbours instead of one fixed question per tag.
+public final class AdaptiveSelector {
+    static final int MIN_ATTEMPTS = 20;
+    private static final double TARGET_JITTER = 0.25;
+
+    private final QuestionBank bank;
+    private final float[] ratings; // ascending
+    private final int[] ids;       // ids[i] has ratings[i]
+    private final int firstId;
+    private final int[] positions; // positions[id - firstId] is id's index in ids, or -1
+
+    private AdaptiveSelector(QuestionBank bank, float[] ratings, int[] ids, int firstId, int[] positions) {
+        this.bank = bank;
+        this.ratings = ratings;
+        this.ids = ids;
+        this.firstId = firstId;
+        this.positions = positions;
+    }
+
+    // stats may be null; O(n log n) in the selection size
+    public static AdaptiveSelector build(QuestionIndex.Selection selection, AnswerStats stats) {
+        int n = selection.size();
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            int id = selection.idAt(i);
+            keys[i] = (long) sortable(rating(selection.bank(), id, stats)) << 32 | (id & 0xFFFFFFFFL);
+        }
+        if (n > 1 << 16) Arrays.parallelSort(keys); else Arrays.sort(keys);
+        float[] ratings = new float[n];
+        int[] ids = new int[n];
+        int firstId = Integer.MAX_VALUE;
+        int lastId = -1;
+        for (int i = 0; i < n; i++) {
+            ratings[i] = unsortable((int) (keys[i] >> 32));
+            ids[i] = (int) keys[i];
+            firstId = Math.min(firstId, ids[i]);
+            lastId = Math.max(lastId, ids[i]);
+        }
+        if (n == 0) firstId = 0;
+        int[] positions = new int[lastId - firstId + 1];
+        Arrays.fill(positions, -1);
+        for (int i = 0; i < n; i++) positions[ids[i] - firstId] = i;
+        return new AdaptiveSelector(selection.bank(), ratings, ids, firstId, positions);
+    }
+
+    static float rating(QuestionBank bank, int id, AnswerStats stats) {
+        AnswerStats.QuestionStats observed = stats == null ? null : stats.get(id);
+        if (observed != null && observed.getAnswered() + observed.getTimeouts() >= MIN_ATTEMPTS) {
+            double p = Math.max(0.02, Math.min(0.98, 1 - observed.getDifficulty()));
+            return (float) Math.log((1 - p) / p);
+        }
+        float spread = ((id * 0x9E3779B9 >>> 16) / 65536f - 0.5f) * 0.4f;
+        return (bank.difficulty(id).ordinal() - 1) + spread;
+    }
+
+    // Float bits reordered so signed int comparison matches float order
+    private static int sortable(float f) {
+        int bits = Float.floatToIntBits(f);
+        return bits ^ ((bits >> 31) & 0x7FFFFFFF);
+    }
+
+    private static float unsortable(int bits) {
+        return Float.intBitsToFloat(bits ^ ((bits >> 31) & 0x7FFFFFFF));
+    }
+
+    public QuestionBank bank() {
+        return bank;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public Session newSession(SplittableRandom random) {
+        return new Session(random);
+    }
+
+    // One player's ability estimate and asked questions; not thread-safe
+    public final class Session {
+        private final SplittableRandom random;
+        private final BitSet asked = new BitSet(); // positions into ratings/ids
+        private int askedCount;
+        private double ability;
+        private float lastRating;
+
+        private Session(SplittableRandom random) {
+            this.random = random;
+        }
+
+        public void reset() {
+            asked.clear();
+            askedCount = 0;
+            ability = 0;
+        }
+
+        // Restores a checkpointed session: the first count of askedIds, then the
+        // ability
+        void resume(int[] askedIds, int count, double ability) {
+            reset();
+            for (int i = 0; i < count; i++) {
+                int p = positionOf(askedIds[i]);
+                if (p < 0 || asked.get(p)) {
+                    throw new IllegalArgumentException("Question " + askedIds[i] + " is not in this selection or repeated");
+                }
+                markAsked(p);
+                lastRating = ratings[p];
+            }
+            this.ability = ability;
+        }
+
+        private int positionOf(int id) {
+            int i = id - firstId;
+            return i >= 0 && i < positions.length ? positions[i] : -1;
+        }
+
+        public double getAbility() {
+            return ability;
+        }
+
+        public int remaining() {
+            return ids.length - askedCount;
+        }
+
+        // Picks and marks asked the unasked question nearest the current ability
+        // (plus a little noise so equal players see different questions); -1 if
+        // every question has been asked
+        public int next() {
+            if (askedCount == ids.length) return -1;
+            double target = ability + (random.nextDouble() * 2 - 1) * TARGET_JITTER;
+            int p = lowerBound(target);
+            int up = firstFreeFrom(p);
+            int down = lastFreeFrom(p - 1);
+            int pick;
+            if (up == ids.length) {
+                pick = down;
+            } else if (down < 0) {
+                pick = up;
+            } else {
+                pick = target - ratings[down] <= ratings[up] - target ? down : up;
+            }
+            markAsked(pick);
+            lastRating = ratings[pick];
+            return ids[pick];
+        }
+
+        // Elo update against the question last returned by next()
+        public void update(boolean correct) {
+            double expected = 1 / (1 + Math.exp(lastRating - ability));
+            double k = Math.max(0.2, 1.0 / Math.sqrt(askedCount));
+            ability += k * ((correct ? 1 : 0) - expected);
+        }
+
+        // First position whose rating is >= target, in [0, n]
+        private int lowerBound(double target) {
+            int lo = 0;
+            int hi = ratings.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (ratings[mid] < target) lo = mid + 1; else hi = mid;
+            }
+            return lo;
+        }
+
+        // Smallest unasked position >= p, or n
+        private int firstFreeFrom(int p) {
+            return asked.nextClearBit(p); // no bit at or past n is ever set
+        }
+
+        // Largest unasked position <= p, or -1
+        private int lastFreeFrom(int p) {
+            return p < 0 ? -1 : asked.previousClearBit(p);
+        }
+
+        private void markAsked(int position) {
+            asked.set(position);
+            askedCount++;
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package quiz;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Asynchronous pipeline for answer events: producers put (question, option,
+// correct, response time) into a bounded lock-free ring, and one writer thread
+// drains it in batches into AnswerStats and, for a file-backed log, into an
+// append-only binary file.
+//
+// offer() never blocks and never allocates: a full ring drops the event and
+// counts it. The writer encodes into a 1 MiB direct buffer and hands it to the
+// FileChannel when it fills or the ring has been idle for FLUSH_INTERVAL, so a
+// busy server writes in large sequential chunks. The file is forced to disk
+// only on close; a crash can lose the last interval of events, and a torn
+// final record is truncated on the next open. Opening replays the file into
+// AnswerStats. Question ids are positions in the bank being played, so a log
+// belongs to one bank: the header holds its fingerprint. A file written for
+// another bank is never overwritten: it is renamed aside to
+// answers-<fingerprint>.log (after the path's own name), and if that bank's
+// log was set aside earlier it is moved back and continued, so switching back
+// to a bank restores its statistics. Replay stops at the first record whose
+// id is outside the bank or whose option is impossible, and the file is
+// truncated there like a torn tail, so a damaged record cannot grow the
+// statistics without bound.
+//
+//   file:   int magic 'QZAL', int version, long bankFingerprint
+//   record: long epochMillis, int questionId, int responseMillis, short option (-1 = timed out),
+//           byte correct, byte reserved
+public final class AnswerLog implements Closeable {
+    private static final int MAGIC = 0x515A414C; // "QZAL"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    static final int RECORD_SIZE = 20;
+    private static final int CAPACITY = 1 << 16;
+    private static final long FLUSH_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+    private static final long MAX_IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final Ring ring = new Ring(CAPACITY);
+    private final AnswerStats stats = new AnswerStats();
+    private final QuestionBank bank; // null: ids are not tied to a bank
+    private final Path path;
+    private final FileChannel file; // null for an in-memory log
+    private final ByteBuffer buffer;
+    private final Thread writer;
+    private final LongAdder dropped = new LongAdder();
+    private volatile boolean running = true;
+    private volatile long written;
+
+    private AnswerLog(Path path, QuestionBank bank) throws IOException {
+        this.bank = bank;
+        this.path = path;
+        if (path == null) {
+            file = null;
+            buffer = null;
+        } else {
+            setAsideUnlessFor(path, bank == null ? 0 : bank.fingerprint());
+            file = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            buffer = ByteBuffer.allocateDirect(1 << 20);
+            long end = file.size() < HEADER_SIZE ? writeHeader() : replay();
+            file.truncate(end); // drop a torn tail from a crash mid-append
+            file.position(end);
+        }
+        writer = new Thread(this::writeLoop, path == null ? "answer-stats" : "answer-log");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // Appends to path, creating it if needed, after replaying its events into
+    // stats(); bank is the one the question ids refer to, or null for any
+    public static AnswerLog open(Path path, QuestionBank bank) throws IOException {
+        return new AnswerLog(path, bank);
+    }
+
+    // Same pipeline and live stats, without a file; bank may be null
+    public static AnswerLog inMemory(QuestionBank bank) {
+        try {
+            return new AnswerLog(null, bank);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    // Null for a log not tied to a bank
+    public QuestionBank bank() {
+        return bank;
+    }
+
+    // Null for an in-memory log
+    public Path path() {
+        return path;
+    }
+
+    // Whether other's question ids mean the same questions as this log's
+    public boolean covers(QuestionBank other) {
+        return bank == null || bank == other || bank.fingerprint() == other.fingerprint();
+    }
+
+    public static Path defaultFile() {
+        return Paths.get(System.getProperty("quiz.answers", "answers.log"));
+    }
+
+    // option < 0 records a timeout. Returns false, dropping the event, if the
+    // writer has fallen CAPACITY events behind or the log is closed.
+    public boolean offer(int questionId, int option, boolean correct, long responseNanos) {
+        if (!running || !ring.offer(System.currentTimeMillis(), questionId, option, correct,
+                                    (int) Math.min(Integer.MAX_VALUE, TimeUnit.NANOSECONDS.toMillis(responseNanos)))) {
+            dropped.increment();
+            return false;
+        }
+        return true;
+    }
+
+    public AnswerStats stats() {
+        return stats;
+    }
+
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    // Events taken off the ring so far (applied to stats, and encoded if file-backed)
+    public long written() {
+        return written;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!running) return;
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (file != null) {
+            try {
+                flush();
+                file.force(false);
+            } finally {
+                file.close();
+            }
+        }
+    }
+
+    private void writeLoop() {
+        long idle = 0;
+        long lastFlush = System.nanoTime();
+        while (running || !ring.isEmpty()) {
+            int drained = ring.drain(this::accept);
+            written += drained;
+            long now = System.nanoTime();
+            if (buffer != null && buffer.position() > 0 && now - lastFlush >= FLUSH_INTERVAL_NANOS) {
+                tryFlush();
+                lastFlush = now;
+            }
+            if (drained == 0) {
+                // Back off while idle, from 50 us up to MAX_IDLE_NANOS
+                idle = idle == 0 ? 50_000 : Math.min(idle * 2, MAX_IDLE_NANOS);
+                if (running) LockSupport.parkNanos(idle);
+            } else {
+                idle = 0;
+            }
+        }
+    }
+
+    private void accept(long time, int questionId, int option, boolean correct, int responseMillis) {
+        stats.add(questionId, option, correct, responseMillis);
+        if (buffer == null) return;
+        if (buffer.remaining() < RECORD_SIZE) tryFlush();
+        buffer.putLong(time).putInt(questionId).putInt(responseMillis)
+              .putShort((short) option).put((byte) (correct ? 1 : 0)).put((byte) 0);
+    }
+
+    private void tryFlush() {
+        try {
+            flush();
+        } catch (IOException e) {
+            System.err.println("Answer log write failed, dropping " + buffer.position() / RECORD_SIZE + " events: " + e);
+            buffer.clear();
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            file.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private long writeHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION)
+            .putLong(bank == null ? 0 : bank.fingerprint()).flip();
+        file.write(header, 0);
+        return HEADER_SIZE;
+    }
+
+    // Leaves path holding the log for fingerprint, or nothing: a log for
+    // another bank is renamed aside, and fingerprint's own is moved back
+    private static void setAsideUnlessFor(Path path, long fingerprint) throws IOException {
+        if (Files.exists(path) && Files.size(path) >= HEADER_SIZE) {
+            long current = fingerprintOf(path);
+            if (current == fingerprint) return;
+            Path aside = setAsidePath(path, current);
+            for (int n = 2; Files.exists(aside); n++) { // left by an interrupted switch; keep both
+                aside = path.resolveSibling(setAsidePath(path, current).getFileName() + "." + n);
+            }
+            Files.move(path, aside, StandardCopyOption.ATOMIC_MOVE);
+            System.err.println("Answer log " + path + " is for another question bank; kept it as " + aside);
+        }
+        Path own = setAsidePath(path, fingerprint);
+        if (Files.exists(own)) Files.move(own, path, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static long fingerprintOf(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            channel.read(header, 0);
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new IOException("Not an answer log: " + path);
+            }
+            return header.getLong(8);
+        }
+    }
+
+    // answers.log for fingerprint 0x1f... is answers-1f....log, next to it
+    static Path setAsidePath(Path path, long fingerprint) {
+        String name = path.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String hex = Long.toHexString(fingerprint);
+        return path.resolveSibling(dot > 0 ? name.substring(0, dot) + "-" + hex + name.substring(dot) : name + "-" + hex);
+    }
+
+    // Streams whole, plausible records into stats; returns the end of valid data
+    private long replay() throws IOException {
+        int questions = bank == null ? Integer.MAX_VALUE : bank.size();
+        long position = HEADER_SIZE;
+        records:
+        while (true) {
+            buffer.clear();
+            if (file.read(buffer, position) < RECORD_SIZE) break; // end, or a torn record
+            buffer.flip();
+            while (buffer.remaining() >= RECORD_SIZE) {
+                buffer.getLong(); // time
+                int questionId = buffer.getInt();
+                int responseMillis = buffer.getInt();
+                int option = buffer.getShort();
+                boolean correct = buffer.get() != 0;
+                buffer.get();
+                if (questionId < 0 || questionId >= questions || option < -1) {
+                    System.err.println("Answer log " + path + ": invalid record at byte " + position
+                                       + ", dropping it and everything after it");
+                    break records;
+                }
+                stats.add(questionId, option, correct, responseMillis);
+                position += RECORD_SIZE;
+            }
+        }
+        buffer.clear();
+        return position;
+    }
+
+    interface EventSink {
+        void accept(long time, int questionId, int option, boolean correct, int responseMillis);
+    }
+
+    // Bounded multi-producer, single-consumer ring (after Vyukov's bounded
+    // queue) with the event fields in parallel primitive arrays. A producer
+    // claims a slot with one CAS on tail, fills it, then publishes it through
+    // the slot's sequence number; the consumer needs no CAS at all.
+    static final class Ring {
+        private final int mask;
+        private final AtomicLongArray sequence;
+        private final long[] times;
+        private final int[] questionIds;
+        private final int[] options;
+        private final int[] responseMillis;
+        private final boolean[] correct;
+        private final AtomicLong tail = new AtomicLong();
+        private long head; // consumer only
+
+        Ring(int capacity) {
+            mask = capacity - 1;
+            sequence = new AtomicLongArray(capacity);
+            for (int i = 0; i < capacity; i++) sequence.set(i, i);
+            times = new long[capacity];
+            questionIds = new int[capacity];
+            options = new int[capacity];
+            responseMillis = new int[capacity];
+            correct = new boolean[capacity];
+        }
+
+        boolean offer(long time, int questionId, int option, boolean isCorrect, int millis) {
+            long pos = tail.get();
+            while (true) {
+                int slot = (int) pos & mask;
+                long seq = sequence.get(slot);
+                if (seq == pos) {
+                    if (tail.compareAndSet(pos, pos + 1)) {
+                        times[slot] = time;
+                        questionIds[slot] = questionId;
+                        options[slot] = option;
+                        responseMillis[slot] = millis;
+                        correct[slot] = isCorrect;
+                        sequence.lazySet(slot, pos + 1); // publish
+                        return true;
+                    }
+                    pos = tail.get();
+                } else if (seq < pos) {
+                    return false; // full: the consumer has not freed this slot yet
+                } else {
+                    pos = tail.get();
+                }
+            }
+        }
+
+        // Hands every published event to sink in order; returns how many
+        int drain(EventSink sink) {
+            int n = 0;
+            while (true) {
+                int slot = (int) head & mask;
+                if (sequence.get(slot) != head + 1) return n;
+                sink.accept(times[slot], questionIds[slot], options[slot], correct[slot], responseMillis[slot]);
+                sequence.lazySet(slot, head + mask + 1); // free for the producer one lap ahead
+                head++;
+                n++;
+            }
+        }
+
+        boolean isEmpty() {
+            return sequence.get((int) head & mask) != head + 1;
+        }
+    }
+}
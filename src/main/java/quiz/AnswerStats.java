@@ -0,0 +1,164 @@
+package quiz;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Running per-question statistics built from the answer event stream: how
+// often each question is answered, answered correctly or left to time out,
+// how often each option is picked, and a LatencyHistogram of response times.
+//
+// Exactly one thread (the AnswerLog writer) calls add(); any number of threads
+// may query at the same time. Counters are published with ordered writes, so
+// readers see each counter's latest value without locking the writer out, but
+// a question's counters are not read as one atomic snapshot.
+public final class AnswerStats {
+    private static final int ANSWERED = 0;
+    private static final int CORRECT = 1;
+    private static final int TIMEOUTS = 2;
+    private static final int PICKS = 3; // picks of option i at PICKS + i
+
+    private volatile AtomicReferenceArray<Tally> questions = new AtomicReferenceArray<>(1024);
+
+    private static final class Tally {
+        final LatencyHistogram responseTimes = new LatencyHistogram();
+        volatile AtomicLongArray counts = new AtomicLongArray(PICKS + 4);
+
+        void increment(int slot) {
+            AtomicLongArray c = counts;
+            c.lazySet(slot, c.get(slot) + 1);
+        }
+
+        void pick(int option) {
+            if (PICKS + option >= counts.length()) {
+                AtomicLongArray grown = new AtomicLongArray(PICKS + option + 1);
+                for (int i = 0; i < counts.length(); i++) grown.set(i, counts.get(i));
+                counts = grown;
+            }
+            increment(PICKS + option);
+        }
+    }
+
+    // Live view of one question's statistics
+    public static final class QuestionStats {
+        private final long answered;
+        private final long correct;
+        private final long timeouts;
+        private final long[] picks;
+        private final LatencyHistogram.Snapshot responseTimes;
+
+        private QuestionStats(long answered, long correct, long timeouts, long[] picks,
+                              LatencyHistogram.Snapshot responseTimes) {
+            this.answered = answered;
+            this.correct = correct;
+            this.timeouts = timeouts;
+            this.picks = picks;
+            this.responseTimes = responseTimes;
+        }
+
+        public long getAnswered() {
+            return answered;
+        }
+
+        public long getCorrect() {
+            return correct;
+        }
+
+        public long getTimeouts() {
+            return timeouts;
+        }
+
+        // Share of attempts (answers and timeouts) that were not correct, 0..1
+        public double getDifficulty() {
+            long attempts = answered + timeouts;
+            return attempts == 0 ? 0 : 1 - (double) correct / attempts;
+        }
+
+        // Share of answers that picked each option
+        public double getPickRate(int option) {
+            return answered == 0 || option >= picks.length ? 0 : (double) picks[option] / answered;
+        }
+
+        public int getOptionsSeen() {
+            return picks.length;
+        }
+
+        public LatencyHistogram.Snapshot getResponseTimes() {
+            return responseTimes;
+        }
+
+        public void appendJson(StringBuilder json) {
+            json.append("{\"answered\":").append(answered)
+                .append(",\"correct\":").append(correct)
+                .append(",\"timeouts\":").append(timeouts)
+                .append(",\"difficulty\":").append(Math.round(getDifficulty() * 1000) / 1000.0)
+                .append(",\"pickRates\":[");
+            for (int i = 0; i < picks.length; i++) {
+                if (i > 0) json.append(',');
+                json.append(Math.round(getPickRate(i) * 1000) / 1000.0);
+            }
+            json.append("],\"responseMillis\":");
+            responseTimes.appendJson(json);
+            json.append('}');
+        }
+    }
+
+    // option < 0 records a timeout; responseMillis is ignored for timeouts
+    void add(int questionId, int option, boolean correct, int responseMillis) {
+        Tally tally = tally(questionId);
+        if (option < 0) {
+            tally.increment(TIMEOUTS);
+            return;
+        }
+        tally.increment(ANSWERED);
+        if (correct) tally.increment(CORRECT);
+        tally.pick(option);
+        tally.responseTimes.record(responseMillis);
+    }
+
+    // Only the writer thread creates and grows, so no locking is needed
+    private Tally tally(int id) {
+        AtomicReferenceArray<Tally> array = questions;
+        if (id >= array.length()) {
+            AtomicReferenceArray<Tally> grown = new AtomicReferenceArray<>(Math.max(id + 1, array.length() * 2));
+            for (int i = 0; i < array.length(); i++) {
+                grown.set(i, array.get(i));
+            }
+            questions = array = grown;
+        }
+        Tally tally = array.get(id);
+        if (tally == null) {
+            tally = new Tally();
+            array.set(id, tally);
+        }
+        return tally;
+    }
+
+    // Null if the question has not been played
+    public QuestionStats get(int questionId) {
+        AtomicReferenceArray<Tally> array = questions;
+        Tally tally = questionId >= 0 && questionId < array.length() ? array.get(questionId) : null;
+        if (tally == null) return null;
+        AtomicLongArray counts = tally.counts;
+        long[] picks = new long[counts.length() - PICKS];
+        for (int i = 0; i < picks.length; i++) {
+            picks[i] = counts.get(PICKS + i);
+        }
+        return new QuestionStats(counts.get(ANSWERED), counts.get(CORRECT), counts.get(TIMEOUTS), picks,
+                                 tally.responseTimes.snapshot());
+    }
+
+    // {"17":{...}, ...} for every question played so far
+    public void appendJson(StringBuilder json) {
+        AtomicReferenceArray<Tally> array = questions;
+        json.append('{');
+        int n = 0;
+        for (int id = 0; id < array.length(); id++) {
+            QuestionStats stats = get(id);
+            if (stats == null) continue;
+            if (n++ > 0) json.append(',');
+            json.append('"').append(id).append("\":");
+            stats.appendJson(json);
+        }
+        json.append('}');
+    }
+}
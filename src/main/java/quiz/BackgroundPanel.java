@@ -0,0 +1,100 @@
+package quiz;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+
+// Gradient-and-bubbles backdrop for the quiz window.
+//
+// The backdrop is rendered once at the panel's real size into a cached
+// display-compatible image (a VolatileImage where the pipeline supports it,
+// otherwise a compatible BufferedImage) and blitted unscaled on every repaint.
+// It is re-rendered only when the size changes or the volatile surface is
+// lost, so the per-second countdown repaint no longer rescales a bitmap.
+class BackgroundPanel extends JPanel {
+    private static final Color TOP = new Color(70, 130, 180);
+    private static final Color BOTTOM = new Color(30, 80, 130);
+    private static final Color BUBBLE = new Color(255, 255, 255, 30);
+    private static final int BUBBLES = 20;
+
+    // Bubble layout as fractions of the panel, so it scales with the window
+    private final float[] bubbleX = new float[BUBBLES];
+    private final float[] bubbleY = new float[BUBBLES];
+    private final float[] bubbleSize = new float[BUBBLES]; // pixels at the 800x600 design size
+
+    private final boolean useVolatile;
+    private VolatileImage volatileCache;
+    private BufferedImage bufferedCache;
+
+    public BackgroundPanel() {
+        this(!Boolean.getBoolean("quiz.noVolatileBackground"));
+    }
+
+    BackgroundPanel(boolean useVolatile) {
+        this.useVolatile = useVolatile && !GraphicsEnvironment.isHeadless();
+        for (int i = 0; i < BUBBLES; i++) {
+            bubbleX[i] = (float) Math.random();
+            bubbleY[i] = (float) Math.random();
+            bubbleSize[i] = (float) (Math.random() * 100) + 20;
+        }
+        setOpaque(true);
+    }
+
+    // Draws the backdrop at w x h; used to fill the cache
+    void render(Graphics2D g2d, int w, int h) {
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setPaint(new GradientPaint(0, 0, TOP, 0, h, BOTTOM));
+        g2d.fillRect(0, 0, w, h);
+        g2d.setColor(BUBBLE);
+        float scale = Math.min(w / 800f, h / 600f);
+        for (int i = 0; i < BUBBLES; i++) {
+            int size = Math.round(bubbleSize[i] * scale);
+            g2d.fillOval(Math.round(bubbleX[i] * w), Math.round(bubbleY[i] * h), size, size);
+        }
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        // The backdrop is opaque and covers everything, so no super.paintComponent fill
+        int w = getWidth();
+        int h = getHeight();
+        if (w <= 0 || h <= 0) return;
+        GraphicsConfiguration gc = getGraphicsConfiguration();
+        if (useVolatile && gc != null) {
+            do {
+                if (volatileCache == null || volatileCache.getWidth() != w || volatileCache.getHeight() != h) {
+                    if (volatileCache != null) volatileCache.flush();
+                    volatileCache = gc.createCompatibleVolatileImage(w, h, Transparency.OPAQUE);
+                    renderInto(volatileCache);
+                } else {
+                    int status = volatileCache.validate(gc);
+                    if (status == VolatileImage.IMAGE_INCOMPATIBLE) {
+                        volatileCache.flush();
+                        volatileCache = gc.createCompatibleVolatileImage(w, h, Transparency.OPAQUE);
+                        renderInto(volatileCache);
+                    } else if (status == VolatileImage.IMAGE_RESTORED) {
+                        renderInto(volatileCache);
+                    }
+                }
+                g.drawImage(volatileCache, 0, 0, null);
+            } while (volatileCache.contentsLost());
+            return;
+        }
+        if (bufferedCache == null || bufferedCache.getWidth() != w || bufferedCache.getHeight() != h) {
+            bufferedCache = gc != null ? gc.createCompatibleImage(w, h, Transparency.OPAQUE)
+                                       : new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+            renderInto(bufferedCache);
+        }
+        g.drawImage(bufferedCache, 0, 0, null);
+    }
+
+    private void renderInto(Image image) {
+        Graphics2D g2d = (Graphics2D) image.getGraphics();
+        try {
+            render(g2d, image.getWidth(null), image.getHeight(null));
+        } finally {
+            g2d.dispose();
+        }
+    }
+}
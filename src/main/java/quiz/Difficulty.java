@@ -0,0 +1,18 @@
+package quiz;
+
+// Difficulty tag carried by every question; ordinal() is its on-disk code.
+public enum Difficulty {
+    EASY, MEDIUM, HARD;
+
+    private static final Difficulty[] VALUES = values();
+
+    static Difficulty fromCode(int code) {
+        return code >= 0 && code < VALUES.length ? VALUES[code] : MEDIUM;
+    }
+
+    // Lenient parse for import files; blank means MEDIUM
+    public static Difficulty parse(String s) {
+        if (s == null || s.trim().isEmpty()) return MEDIUM;
+        return valueOf(s.trim().toUpperCase());
+    }
+}
@@ -0,0 +1,76 @@
+package quiz;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+
+// Answer feedback card drawn on the frame's glass pane.
+//
+// One instance lives for the whole game and is shown and hidden between
+// questions. It paints its card directly (no child components), so showing
+// feedback creates no window, runs no nested modal event loop and allocates
+// nothing per answer. While visible it swallows mouse input, as the modal
+// dialog it replaces did.
+class FeedbackOverlay extends JComponent {
+    private static final int CARD_WIDTH = 300;
+    private static final int CARD_HEIGHT = 200;
+    private static final BasicStroke BORDER_STROKE = new BasicStroke(2f);
+
+    private String icon = "";
+    private String message = "";
+    private Color color = Theme.CORRECT;
+
+    FeedbackOverlay() {
+        setOpaque(false);
+        setVisible(false);
+        MouseAdapter swallow = new MouseAdapter() {
+        };
+        addMouseListener(swallow);
+        addMouseMotionListener(swallow);
+    }
+
+    void showFeedback(boolean correct, boolean timedOut) {
+        if (correct) {
+            icon = "✓";
+            message = "Correct!";
+            color = Theme.CORRECT;
+        } else {
+            icon = "✗";
+            message = timedOut ? "Time's Up!" : "Incorrect";
+            color = Theme.WRONG;
+        }
+        if (isVisible()) {
+            repaint();
+        } else {
+            setVisible(true);
+        }
+    }
+
+    void hideFeedback() {
+        setVisible(false);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Graphics2D g2d = (Graphics2D) g;
+        g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        int x = (getWidth() - CARD_WIDTH) / 2;
+        int y = (getHeight() - CARD_HEIGHT) / 2;
+        g2d.setColor(Theme.CARD);
+        g2d.fillRect(x, y, CARD_WIDTH, CARD_HEIGHT);
+        g2d.setColor(Theme.CARD_BORDER);
+        Stroke stroke = g2d.getStroke();
+        g2d.setStroke(BORDER_STROKE);
+        g2d.drawRect(x + 1, y + 1, CARD_WIDTH - 2, CARD_HEIGHT - 2);
+        g2d.setStroke(stroke);
+
+        g2d.setColor(color);
+        g2d.setFont(Theme.ICON_FONT);
+        FontMetrics fm = g2d.getFontMetrics();
+        g2d.drawString(icon, x + (CARD_WIDTH - fm.stringWidth(icon)) / 2, y + 30 + fm.getAscent());
+        int iconBottom = y + 30 + fm.getHeight();
+        g2d.setFont(Theme.QUESTION_FONT);
+        fm = g2d.getFontMetrics();
+        g2d.drawString(message, x + (CARD_WIDTH - fm.stringWidth(message)) / 2, iconBottom + 10 + fm.getAscent());
+    }
+}
@@ -0,0 +1,44 @@
+package quiz;
+
+// 64-bit content hash for QuestionBank.fingerprint(), fed one question at a
+// time in id order as a bank is built or written. It hashes the question
+// values rather than any storage layout, so a CSV bank and the .qbank imported
+// from it share a fingerprint. Not cryptographic; it tells banks apart, it
+// does not defend against someone crafting a collision.
+final class Fingerprint {
+    private long h = 0x9E3779B97F4A7C15L;
+
+    Fingerprint add(long word) {
+        h = Long.rotateLeft(h ^ word * 0xBF58476D1CE4E5B9L, 31) * 0x94D049BB133111EBL;
+        return this;
+    }
+
+    // Four chars to a word, then the length
+    Fingerprint add(String s) {
+        int n = s.length();
+        int i = 0;
+        for (; i + 4 <= n; i += 4) {
+            add((long) s.charAt(i) << 48 | (long) s.charAt(i + 1) << 32 | (long) s.charAt(i + 2) << 16 | s.charAt(i + 3));
+        }
+        long tail = 0;
+        for (; i < n; i++) tail = tail << 16 | s.charAt(i);
+        return add(tail).add(n);
+    }
+
+    // category is the resolved name; an out-of-range correctIndex counts as none
+    Fingerprint addQuestion(String text, String[] options, int correctIndex, String category, Difficulty difficulty) {
+        add(text);
+        for (String option : options) add(option);
+        return add(options.length).add(correctIndex < 0 || correctIndex >= options.length ? -1 : correctIndex)
+            .add(category).add(difficulty.ordinal());
+    }
+
+    // Never 0, so a stored 0 can mean "missing"
+    long value() {
+        long x = h;
+        x ^= x >>> 33;
+        x *= 0xff51afd7ed558ccdL;
+        x ^= x >>> 33;
+        return x == 0 ? 1 : x;
+    }
+}
@@ -0,0 +1,100 @@
+package quiz;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Fixed-size log-linear histogram of millisecond latencies, in the manner of
+// HdrHistogram: values below 16 ms get a bucket each, and every power of two
+// above that is split into 16 sub-buckets, so any value is reported within
+// 1/16 (6.25%) of itself. 192 buckets cover 0 ms to 32.7 s; larger values land
+// in the top bucket.
+//
+// Recording is one atomic increment on the value's bucket plus a striped sum,
+// with no locks and no allocation, so many threads can record into the same
+// histogram. Snapshots copy the counts and are consistent per bucket but not
+// across buckets while recording continues.
+public final class LatencyHistogram {
+    private static final int SUB_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;   // per power of two
+    private static final long MAX_VALUE = (1L << 15) - 1;     // 32,767 ms
+    private static final int BUCKETS = bucket(MAX_VALUE) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder sum = new LongAdder();
+
+    public void record(long millis) {
+        long value = Math.max(0, Math.min(millis, MAX_VALUE));
+        counts.incrementAndGet(bucket(value));
+        sum.add(value);
+    }
+
+    static int bucket(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        return ((shift + 1) << SUB_BITS) + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    // Largest value that falls in the bucket, as HdrHistogram reports percentiles
+    static long highestValue(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+        int shift = (bucket >>> SUB_BITS) - 1;
+        long sub = bucket - (shift << SUB_BITS);
+        return ((sub + 1) << shift) - 1;
+    }
+
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            total += copy[i];
+        }
+        return new Snapshot(copy, total, sum.sum());
+    }
+
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+
+        private Snapshot(long[] counts, long count, long sum) {
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getMean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        // Value at or below which the given percentage (0-100) of recordings fall
+        public long getPercentile(double percent) {
+            if (count == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(percent / 100 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) return highestValue(i);
+            }
+            return MAX_VALUE;
+        }
+
+        public long getMax() {
+            return getPercentile(100);
+        }
+
+        // {"count":n,"mean":m,"p50":..,"p90":..,"p99":..,"max":..} in milliseconds
+        public void appendJson(StringBuilder json) {
+            json.append("{\"count\":").append(count)
+                .append(",\"mean\":").append(Math.round(getMean()))
+                .append(",\"p50\":").append(getPercentile(50))
+                .append(",\"p90\":").append(getPercentile(90))
+                .append(",\"p99\":").append(getPercentile(99))
+                .append(",\"max\":").append(getMax()).append('}');
+        }
+    }
+}
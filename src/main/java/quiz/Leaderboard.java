@@ -0,0 +1,419 @@
+package quiz;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32;
+
+// Persistent leaderboard: every finished session is appended to scores.log and
+// the best score per player is indexed in memory.
+//
+// Writes use group commit: record() queues the result and a single writer
+// thread appends whatever has queued up as one batch with one fsync, then
+// completes each caller's future with the player's rank. The in-memory index
+// only ever reflects durable records.
+//
+// Ranking keeps a tree of players ordered by best score plus a Fenwick tree of
+// player counts per score, so top(n) is O(log n + n) and rank() is O(log S).
+// Startup loads scores.snap (best scores and the log offset they cover) and
+// streams only the log tail written after it; a torn final record is truncated.
+//
+//   log record:  int length | u16 nameLen, name (UTF-8), int score, int total, long time | int crc32
+//   snapshot:    int magic, long logOffset, int count, count x (u16 nameLen, name, int score, int total, long time), int crc32
+public final class Leaderboard implements Closeable {
+    private static final int SNAPSHOT_MAGIC = 0x51534E50; // "QSNP"
+    private static final int MAX_BATCH = 4096;
+    private static final int SNAPSHOT_EVERY = 100_000;
+    private static final long COMMIT_WINDOW_NANOS = TimeUnit.MICROSECONDS.toNanos(500);
+
+    public static final class Entry {
+        private final String player;
+        private final int score;
+        private final int total;
+        private final long time;
+
+        Entry(String player, int score, int total, long time) {
+            this.player = player;
+            this.score = score;
+            this.total = total;
+            this.time = time;
+        }
+
+        public String getPlayer() {
+            return player;
+        }
+
+        public int getScore() {
+            return score;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public long getTime() {
+            return time;
+        }
+    }
+
+    private static final class Pending {
+        final Entry entry;
+        final CompletableFuture<Integer> rank = new CompletableFuture<>();
+
+        Pending(Entry entry) {
+            this.entry = entry;
+        }
+    }
+
+    // Highest score first; ties go to whoever got there first
+    private static final Comparator<Entry> ORDER = Comparator.comparingInt((Entry e) -> -e.score)
+        .thenComparingLong(e -> e.time)
+        .thenComparing(e -> e.player);
+
+    private final Path logFile;
+    private final Path snapshotFile;
+    private final FileChannel log;
+    private final BlockingQueue<Pending> queue = new ArrayBlockingQueue<>(1 << 16);
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    // Guarded by this
+    private final Map<String, Entry> best = new HashMap<>();
+    private final TreeSet<Entry> ranking = new TreeSet<>(ORDER);
+    private long[] countsPerScore = new long[64]; // Fenwick tree, 1-based over score + 1
+
+    // Writer-thread state
+    private long logEnd;
+    private long sinceSnapshot;
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+
+    private Leaderboard(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        this.logFile = directory.resolve("scores.log");
+        this.snapshotFile = directory.resolve("scores.snap");
+        long offset = loadSnapshot();
+        this.log = FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (offset > log.size()) offset = 0; // snapshot from a different log; rebuild from scratch
+        if (offset == 0) clear();
+        this.logEnd = replay(offset);
+        log.truncate(logEnd); // drop a torn tail from a crash mid-append
+        log.position(logEnd);
+        this.writer = new Thread(this::writeLoop, "leaderboard-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public static Leaderboard open(Path directory) throws IOException {
+        return new Leaderboard(directory);
+    }
+
+    public static Path defaultDirectory() {
+        return Paths.get(System.getProperty("quiz.leaderboard", "leaderboard"));
+    }
+
+    // Queues a finished session; the future completes with the player's rank
+    // once the record is on disk
+    public CompletableFuture<Integer> record(String player, int score, int total) {
+        if (score < 0) throw new IllegalArgumentException("Negative score: " + score);
+        if (player.length() > 1000) throw new IllegalArgumentException("Player name too long");
+        Pending pending = new Pending(new Entry(player, score, total, System.currentTimeMillis()));
+        if (!running) {
+            pending.rank.completeExceptionally(new IllegalStateException("Leaderboard is closed"));
+            return pending.rank;
+        }
+        try {
+            queue.put(pending);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.rank.completeExceptionally(e);
+            return pending.rank;
+        }
+        // close() may have stopped the writer between the check and the put;
+        // whichever of us takes the entry back out fails it
+        if (!running && queue.remove(pending)) {
+            pending.rank.completeExceptionally(new IllegalStateException("Leaderboard is closed"));
+        }
+        return pending.rank;
+    }
+
+    public synchronized List<Entry> top(int n) {
+        List<Entry> top = new ArrayList<>(Math.min(n, ranking.size()));
+        for (Entry e : ranking) {
+            if (top.size() == n) break;
+            top.add(e);
+        }
+        return top;
+    }
+
+    // 1-based rank of the player's best score, or -1 if they have none
+    public synchronized int rank(String player) {
+        Entry e = best.get(player);
+        return e == null ? -1 : rankOf(e.score);
+    }
+
+    public synchronized Entry best(String player) {
+        return best.get(player);
+    }
+
+    public synchronized int players() {
+        return best.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!running) return;
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Records that raced with shutdown were never written
+        Pending late;
+        while ((late = queue.poll()) != null) {
+            late.rank.completeExceptionally(new IllegalStateException("Leaderboard is closed"));
+        }
+        try {
+            writeSnapshot();
+        } finally {
+            log.close();
+        }
+    }
+
+    private int rankOf(int score) {
+        return (int) (best.size() - prefix(score) + 1);
+    }
+
+    // --- in-memory index, guarded by this ---
+
+    private void clear() {
+        best.clear();
+        ranking.clear();
+        Arrays.fill(countsPerScore, 0);
+    }
+
+    private void apply(Entry entry) {
+        if (entry.score + 1 >= countsPerScore.length) {
+            growFenwick(entry.score + 2);
+        }
+        Entry previous = best.get(entry.player);
+        if (previous != null) {
+            if (previous.score >= entry.score) return;
+            ranking.remove(previous);
+            add(previous.score, -1);
+        }
+        best.put(entry.player, entry);
+        ranking.add(entry);
+        add(entry.score, 1);
+    }
+
+    private void add(int score, long delta) {
+        for (int i = score + 1; i < countsPerScore.length; i += i & -i) {
+            countsPerScore[i] += delta;
+        }
+    }
+
+    // Players whose best score is <= score
+    private long prefix(int score) {
+        long sum = 0;
+        for (int i = Math.min(score + 1, countsPerScore.length - 1); i > 0; i -= i & -i) {
+            sum += countsPerScore[i];
+        }
+        return sum;
+    }
+
+    private void growFenwick(int minLength) {
+        int length = countsPerScore.length;
+        while (length < minLength) length *= 2;
+        countsPerScore = new long[length];
+        for (Entry e : best.values()) {
+            for (int i = e.score + 1; i < length; i += i & -i) {
+                countsPerScore[i]++;
+            }
+        }
+    }
+
+    // --- log writer ---
+
+    private void writeLoop() {
+        List<Pending> batch = new ArrayList<>(MAX_BATCH);
+        while (running || !queue.isEmpty()) {
+            Pending first;
+            try {
+                first = queue.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                continue;
+            }
+            if (first == null) continue;
+            batch.add(first);
+            // Give concurrent finishers a moment to share this fsync
+            if (queue.isEmpty() && running) LockSupport.parkNanos(COMMIT_WINDOW_NANOS);
+            queue.drainTo(batch, MAX_BATCH - 1);
+            commit(batch);
+            batch.clear();
+            if (sinceSnapshot >= SNAPSHOT_EVERY) {
+                try {
+                    writeSnapshot();
+                } catch (IOException e) {
+                    System.err.println("Leaderboard snapshot failed: " + e);
+                }
+            }
+        }
+    }
+
+    private void commit(List<Pending> batch) {
+        try {
+            buffer.clear();
+            for (Pending p : batch) {
+                encode(p.entry);
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                logEnd += log.write(buffer);
+            }
+            log.force(false);
+        } catch (IOException e) {
+            for (Pending p : batch) p.rank.completeExceptionally(e);
+            return;
+        }
+        sinceSnapshot += batch.size();
+        int[] ranks = new int[batch.size()];
+        synchronized (this) {
+            for (Pending p : batch) apply(p.entry);
+            for (int i = 0; i < ranks.length; i++) ranks[i] = rankOf(best.get(batch.get(i).entry.player).score);
+        }
+        for (int i = 0; i < ranks.length; i++) batch.get(i).rank.complete(ranks[i]);
+    }
+
+    private void encode(Entry e) {
+        byte[] name = e.player.getBytes(StandardCharsets.UTF_8);
+        int payload = 2 + name.length + 4 + 4 + 8;
+        if (buffer.remaining() < payload + 8) {
+            ByteBuffer bigger = ByteBuffer.allocateDirect(Math.max(buffer.capacity() * 2, buffer.position() + payload + 8));
+            buffer.flip();
+            bigger.put(buffer);
+            buffer = bigger;
+        }
+        buffer.putInt(payload);
+        int start = buffer.position();
+        buffer.putShort((short) name.length).put(name).putInt(e.score).putInt(e.total).putLong(e.time);
+        buffer.putInt(crc(buffer, start, payload));
+    }
+
+    private static int crc(ByteBuffer buffer, int start, int length) {
+        CRC32 crc = new CRC32();
+        ByteBuffer slice = buffer.duplicate();
+        slice.limit(start + length).position(start);
+        crc.update(slice);
+        return (int) crc.getValue();
+    }
+
+    // Streams records from offset into the index; returns the end of valid data
+    private long replay(long offset) throws IOException {
+        ByteBuffer in = ByteBuffer.allocateDirect(1 << 20);
+        long position = offset;
+        long valid = offset;
+        in.limit(0);
+        synchronized (this) {
+            while (true) {
+                if (in.remaining() >= 4) {
+                    int payload = in.getInt(in.position());
+                    if (payload < 18 || payload > in.capacity() - 8) break; // corrupt length
+                    if (in.remaining() >= 8 + payload) {
+                        int start = in.position() + 4;
+                        if (in.getInt(start + payload) != crc(in, start, payload)) break;
+                        in.position(start);
+                        byte[] name = new byte[in.getShort() & 0xFFFF];
+                        in.get(name);
+                        apply(new Entry(new String(name, StandardCharsets.UTF_8), in.getInt(), in.getInt(), in.getLong()));
+                        in.getInt(); // crc
+                        valid += 8 + payload;
+                        continue;
+                    }
+                }
+                in.compact();
+                int read = log.read(in, position);
+                in.flip();
+                if (read <= 0) break;
+                position += read;
+            }
+        }
+        return valid;
+    }
+
+    // --- snapshots ---
+
+    private long loadSnapshot() throws IOException {
+        if (!Files.exists(snapshotFile)) return 0;
+        ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(snapshotFile));
+        if (in.remaining() < 20 || in.getInt(0) != SNAPSHOT_MAGIC
+            || in.getInt(in.limit() - 4) != crc(in, 0, in.limit() - 4)) {
+            System.err.println("Ignoring damaged leaderboard snapshot " + snapshotFile);
+            return 0;
+        }
+        in.getInt();
+        long offset = in.getLong();
+        int count = in.getInt();
+        synchronized (this) {
+            for (int i = 0; i < count; i++) {
+                byte[] name = new byte[in.getShort() & 0xFFFF];
+                in.get(name);
+                apply(new Entry(new String(name, StandardCharsets.UTF_8), in.getInt(), in.getInt(), in.getLong()));
+            }
+        }
+        return offset;
+    }
+
+    private void writeSnapshot() throws IOException {
+        Path tmp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        long offset = logEnd;
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buf = ByteBuffer.allocate(1 << 20);
+            CRC32 crc = new CRC32();
+            buf.putInt(SNAPSHOT_MAGIC).putLong(offset);
+            List<Entry> entries;
+            synchronized (this) {
+                entries = new ArrayList<>(best.values());
+            }
+            buf.putInt(entries.size());
+            for (Entry e : entries) {
+                byte[] name = e.player.getBytes(StandardCharsets.UTF_8);
+                if (buf.remaining() < name.length + 22) {
+                    buf.flip();
+                    crc.update(buf.duplicate());
+                    while (buf.hasRemaining()) out.write(buf);
+                    buf.clear();
+                }
+                buf.putShort((short) name.length).put(name).putInt(e.score).putInt(e.total).putLong(e.time);
+            }
+            buf.flip();
+            crc.update(buf.duplicate());
+            while (buf.hasRemaining()) out.write(buf);
+            out.write(ByteBuffer.allocate(4).putInt(0, (int) crc.getValue()));
+            out.force(true);
+        }
+        Files.move(tmp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        sinceSnapshot = 0;
+    }
+}
@@ -0,0 +1,632 @@
+package quiz;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+// Host-driven live rounds: every connected player gets the same question at
+// once, answers against the clock, and is scored when the round closes. All
+// connections are served by one selector thread, which also owns the round
+// state, so nothing in a round is locked.
+//
+// The protocol is UTF-8 lines over TCP. Clients send
+//
+//   join <name>           -> {"type":"welcome","player":id,"players":n}
+//   answer <round> <n>    the first answer to the open round counts; no reply
+//   host                  take the host role (loopback connections only), then
+//   start                 open the next round
+//
+// and receive
+//
+//   {"type":"question","round":r,"question":...,"options":[...],"timeLeft":s}
+//   {"type":"tick","round":r,"timeLeft":s}                                  once a second
+//   {"type":"end","round":r,"correctIndex":i,"top":[{"player","score"},...]}
+//   {"type":"score","round":r,"answered":b,"correct":b,"score":s,"rank":k,"players":n}
+//   {"type":"summary","round":r,"players",...}                              host only
+//
+// Fan-out: a message is encoded once and written to each socket straight from
+// the shared buffer; only a socket that cannot take it all gets a queued
+// view of the rest and OP_WRITE. A connection that falls MAX_QUEUED messages
+// behind is dropped.
+//
+// Deadlines: each player's window runs for the round's full time from the
+// moment the question was completely written to that player's socket, so
+// whoever is last in the fan-out loses nothing. An answer counts if it is
+// read inside the window. The round closes once every delivered window has
+// ended; a question still undelivered after MAX_FAN_OUT is cut short. Ticks
+// are shared and approximate; the windows are authoritative.
+//
+// Fan-in: answers are only recorded (option and elapsed time, in arrays
+// indexed by player) and are scored together in one pass at close. Players
+// sit in per-score buckets (intrusive linked lists), so a correct answer
+// moves a player up in O(1), ranks come from a suffix sum over scores and the
+// top list walks down from the best bucket. Within a score, players who got
+// there earlier come first; within a round, faster answers first.
+//
+// Usage: java -cp quiz.jar quiz.LiveQuizServer [port] [seconds]   (default 9090, 15)
+//        then press Enter (or have the host connection send "start") for each round
+public final class LiveQuizServer {
+    private static final int MAX_LINE = 256;
+    private static final int MAX_QUEUED = 64;
+    private static final int MAX_NAME = 64;
+    private static final int TOP = 10;
+    private static final int MAX_ORDER = 10_000;
+    private static final int MAX_PLAYERS = 1 << 24; // player numbers share a sort key with the answer time
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long MAX_FAN_OUT = SECOND;
+
+    private final QuestionBankWatcher bank;
+    private final long windowNanos;
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final SplittableRandom random = new SplittableRandom();
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(64 * 1024); // shared by every read
+    private Thread thread;
+    private volatile boolean running;
+
+    // Players, indexed by join order; they keep their score after disconnecting
+    private int playerCount;
+    private String[] names = new String[1024];
+    private Connection[] connections = new Connection[1024];
+    private int[] scores = new int[1024];
+    private short[] choices = new short[1024]; // -1 = no answer this round; banks allow up to 255 options
+    private long[] elapsed = new long[1024]; // answer time within the player's window
+    private int[] next = new int[1024]; // bucket links
+    private int[] prev = new int[1024];
+    private int[] bucketHead = new int[16]; // per score, -1 = empty
+    private int[] bucketTail = new int[16];
+    private int[] bucketSize = new int[16];
+    private int[] rankAt = new int[16];
+    private int topScore;
+    private long[] sortKeys = new long[0];
+
+    // The round
+    private int round;
+    private boolean open;
+    private Question question;
+    private long roundStart;
+    private long lastDelivery;
+    private int undelivered;
+    private int sentTo;
+    private long closeAt; // 0 until the fan-out is done
+    private long nextTick;
+    private Connection host;
+    private int[] order = new int[0];
+    private QuestionBank orderBank;
+    private int orderPosition;
+
+    public LiveQuizServer(QuestionBankWatcher bank, InetSocketAddress address, int seconds) throws IOException {
+        if (seconds < 1) throw new IllegalArgumentException("seconds must be at least 1");
+        this.bank = bank;
+        this.windowNanos = TimeUnit.SECONDS.toNanos(seconds);
+        Arrays.fill(bucketHead, -1);
+        Arrays.fill(bucketTail, -1);
+        selector = Selector.open();
+        server = ServerSocketChannel.open();
+        server.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+        server.bind(address, 4096);
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 9090;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : QuizEngine.SECONDS_PER_QUESTION;
+        QuestionBank initial = QuestionBankLoader.loadDefault();
+        QuestionBankValidator.Report report = QuestionBankValidator.validate(initial);
+        if (report.errors() > 0) {
+            System.err.print(report);
+            System.err.printf("Not starting: the question bank has %,d errors%n", report.errors());
+            System.exit(1);
+        }
+        QuestionBankWatcher bank = QuestionBankWatcher.watch(QuestionBankLoader.defaultBankFile(),
+                                                             new QuestionIndex(initial));
+        LiveQuizServer server = new LiveQuizServer(bank, new InetSocketAddress(port), seconds);
+        server.start();
+        System.out.println("Live quiz listening on port " + server.port() + "; press Enter to start a round");
+        BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        String line;
+        while ((line = in.readLine()) != null) { // without a console, keeps serving for a host connection
+            if (line.trim().equals("quit")) {
+                server.stop();
+                bank.close();
+                return;
+            }
+            server.startRound();
+        }
+    }
+
+    public void start() {
+        running = true;
+        thread = new Thread(this::loop, "quiz-live");
+        thread.start();
+    }
+
+    // Closes every connection and the listening socket; fine before start()
+    public void stop() {
+        running = false;
+        if (thread == null) {
+            closeAll();
+            return;
+        }
+        selector.wakeup();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public int port() {
+        return server.socket().getLocalPort();
+    }
+
+    // Opens the next round, unless one is open; safe from any thread
+    public void startRound() {
+        tasks.add(() -> openRound(null));
+        selector.wakeup();
+    }
+
+    private void loop() {
+        try {
+            while (running) {
+                selector.select(timeout());
+                Runnable task;
+                while ((task = tasks.poll()) != null) task.run();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) continue;
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    Connection c = (Connection) key.attachment();
+                    if (key.isReadable()) read(c);
+                    if (key.isValid() && key.isWritable()) flush(c);
+                }
+                if (open) timers(System.nanoTime());
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            closeAll();
+        }
+    }
+
+    private void closeAll() {
+        if (!selector.isOpen()) return;
+        for (SelectionKey key : selector.keys()) {
+            try {
+                key.channel().close();
+            } catch (IOException e) {
+                // closing anyway
+            }
+        }
+        try {
+            selector.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // Milliseconds until the next tick, fan-out cutoff or close; 0 blocks
+    private long timeout() {
+        if (!open) return 0;
+        long due = Math.min(nextTick, closeAt != 0 ? closeAt : roundStart + MAX_FAN_OUT);
+        return Math.max(1, TimeUnit.NANOSECONDS.toMillis(due - System.nanoTime() + 999_999));
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = server.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            Connection c = new Connection(channel);
+            c.key = channel.register(selector, SelectionKey.OP_READ, c);
+        }
+    }
+
+    // ---- reading and commands ----
+
+    private void read(Connection c) {
+        int n;
+        try {
+            readBuffer.clear();
+            n = c.channel.read(readBuffer);
+        } catch (IOException e) {
+            n = -1;
+        }
+        if (n < 0) {
+            close(c);
+            return;
+        }
+        long now = System.nanoTime();
+        readBuffer.flip();
+        while (readBuffer.hasRemaining()) {
+            byte b = readBuffer.get();
+            if (b == '\n') {
+                String line = new String(c.line, 0, c.lineLength, StandardCharsets.UTF_8).trim();
+                c.lineLength = 0;
+                command(c, line, now);
+                if (!c.key.isValid()) return;
+            } else if (c.lineLength == MAX_LINE) {
+                close(c); // not speaking the protocol
+                return;
+            } else {
+                c.line[c.lineLength++] = b;
+            }
+        }
+    }
+
+    private void command(Connection c, String line, long now) {
+        if (line.startsWith("answer ")) {
+            int space = line.indexOf(' ', 7);
+            try {
+                answer(c, Integer.parseInt(line.substring(7, space)), Integer.parseInt(line.substring(space + 1)), now);
+            } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
+                send(c, error("Expected: answer <round> <option>"));
+            }
+        } else if (line.startsWith("join ")) {
+            join(c, line.substring(5).trim());
+        } else if (line.equals("host")) {
+            InetAddress remote = c.channel.socket().getInetAddress();
+            if (remote != null && remote.isLoopbackAddress()) {
+                c.host = true;
+            } else {
+                send(c, error("Only local connections can host"));
+            }
+        } else if (line.equals("start") && c.host) {
+            openRound(c);
+        } else if (!line.isEmpty()) {
+            send(c, error("Unknown command: " + line));
+        }
+    }
+
+    private void join(Connection c, String name) {
+        if (c.player >= 0) {
+            send(c, error("Already joined"));
+            return;
+        }
+        if (name.isEmpty() || name.length() > MAX_NAME) {
+            send(c, error("Name must be 1 to " + MAX_NAME + " characters"));
+            return;
+        }
+        if (playerCount == MAX_PLAYERS) {
+            send(c, error("The game is full"));
+            return;
+        }
+        int p = playerCount++;
+        if (p == names.length) growPlayers();
+        names[p] = name;
+        connections[p] = c;
+        choices[p] = -1;
+        c.player = p;
+        append(0, p);
+        send(c, ByteBuffer.wrap(("{\"type\":\"welcome\",\"player\":" + p + ",\"players\":" + playerCount + "}\n")
+                                    .getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private void answer(Connection c, int answerRound, int option, long now) {
+        int p = c.player;
+        if (!open || answerRound != round || p < 0 || choices[p] >= 0 || c.deliveredAt == 0) return;
+        long time = now - c.deliveredAt;
+        if (time > windowNanos || option < 0 || option >= question.getOptionCount()) return; // late or invalid
+        choices[p] = (short) option;
+        elapsed[p] = time;
+    }
+
+    // ---- rounds ----
+
+    private void openRound(Connection by) {
+        if (open) {
+            if (by != null) send(by, error("Round " + round + " is still open"));
+            return;
+        }
+        QuestionIndex index = bank.current();
+        if (index.bank().size() == 0) {
+            if (by != null) send(by, error("The question bank is empty"));
+            return;
+        }
+        if (orderBank != index.bank() || orderPosition == order.length) {
+            order = index.all().draw(Math.min(index.bank().size(), MAX_ORDER), random);
+            orderBank = index.bank();
+            orderPosition = 0;
+        }
+        question = orderBank.get(order[orderPosition++]);
+        host = by;
+        round++;
+        open = true;
+        long now = System.nanoTime();
+        roundStart = now;
+        lastDelivery = now;
+        closeAt = 0;
+        nextTick = now + SECOND;
+        undelivered = 0;
+        sentTo = 0;
+
+        StringBuilder json = new StringBuilder(256);
+        json.append("{\"type\":\"question\",\"round\":").append(round).append(",\"question\":");
+        QuizServer.quote(json, question.getQuestionText());
+        json.append(",\"options\":[");
+        for (int i = 0; i < question.getOptionCount(); i++) {
+            if (i > 0) json.append(',');
+            QuizServer.quote(json, question.getOption(i));
+        }
+        json.append("],\"timeLeft\":").append(TimeUnit.NANOSECONDS.toSeconds(windowNanos)).append("}\n");
+        ByteBuffer message = encode(json);
+        for (int p = 0; p < playerCount; p++) {
+            Connection c = connections[p];
+            if (c == null) continue;
+            sentTo++;
+            c.deliveredAt = 0;
+            c.question = null;
+            ByteBuffer queued = send(c, message);
+            if (c.key.isValid()) {
+                if (queued == null) {
+                    delivered(c, System.nanoTime());
+                } else {
+                    c.question = queued;
+                    undelivered++;
+                }
+            }
+        }
+        timers(System.nanoTime());
+    }
+
+    private void delivered(Connection c, long now) {
+        c.deliveredAt = now;
+        if (closeAt == 0) lastDelivery = Math.max(lastDelivery, now);
+    }
+
+    private void timers(long now) {
+        if (closeAt == 0 && (undelivered == 0 || now - roundStart >= MAX_FAN_OUT)) {
+            closeAt = lastDelivery + windowNanos;
+        }
+        if (closeAt != 0 && now >= closeAt) {
+            closeRound(now);
+            return;
+        }
+        if (now >= nextTick) {
+            long end = closeAt != 0 ? closeAt : roundStart + windowNanos;
+            long left = (end - now + SECOND - 1) / SECOND;
+            if (left > 0) {
+                broadcast(encode(new StringBuilder(48).append("{\"type\":\"tick\",\"round\":").append(round)
+                                     .append(",\"timeLeft\":").append(left).append("}\n")));
+            }
+            while (nextTick <= now) nextTick += SECOND;
+        }
+    }
+
+    // Scores every recorded answer in one pass, then sends the results
+    private void closeRound(long now) {
+        long scoringStart = System.nanoTime();
+        int correctIndex = question.getCorrectIndex();
+        if (sortKeys.length < playerCount) sortKeys = new long[names.length];
+        int answered = 0;
+        int correct = 0;
+        for (int p = 0; p < playerCount; p++) {
+            if (choices[p] < 0) continue;
+            answered++;
+            if (choices[p] == correctIndex) {
+                // Fastest first; elapsed in microseconds above the player number
+                sortKeys[correct++] = TimeUnit.NANOSECONDS.toMicros(elapsed[p]) << 24 | p;
+            }
+        }
+        Arrays.sort(sortKeys, 0, correct);
+        for (int i = 0; i < correct; i++) {
+            int p = (int) (sortKeys[i] & 0xFFFFFF);
+            unlink(scores[p], p);
+            append(++scores[p], p);
+        }
+        int above = 0;
+        for (int s = topScore; s >= 0; s--) {
+            rankAt[s] = above + 1;
+            above += bucketSize[s];
+        }
+        long scoringTime = System.nanoTime() - scoringStart;
+
+        StringBuilder json = new StringBuilder(128 + TOP * 48);
+        json.append("{\"type\":\"end\",\"round\":").append(round)
+            .append(",\"correctIndex\":").append(correctIndex).append(",\"top\":[");
+        int shown = 0;
+        for (int s = topScore; s >= 0 && shown < TOP; s--) {
+            for (int p = bucketHead[s]; p >= 0 && shown < TOP; p = next[p]) {
+                if (shown++ > 0) json.append(',');
+                json.append("{\"player\":");
+                QuizServer.quote(json, names[p]);
+                json.append(",\"score\":").append(s).append('}');
+            }
+        }
+        broadcast(encode(json.append("]}\n")));
+        for (int p = 0; p < playerCount; p++) {
+            Connection c = connections[p];
+            if (c != null && (c.deliveredAt != 0 || c.question != null)) { // was sent this round's question
+                json.setLength(0);
+                json.append("{\"type\":\"score\",\"round\":").append(round)
+                    .append(",\"answered\":").append(choices[p] >= 0)
+                    .append(",\"correct\":").append(choices[p] >= 0 && choices[p] == correctIndex)
+                    .append(",\"score\":").append(scores[p])
+                    .append(",\"rank\":").append(rankAt[scores[p]])
+                    .append(",\"players\":").append(playerCount).append("}\n");
+                send(c, ByteBuffer.wrap(json.toString().getBytes(StandardCharsets.UTF_8)));
+            }
+            choices[p] = -1;
+        }
+        open = false;
+
+        long fanOut = lastDelivery - roundStart;
+        String summary = "{\"type\":\"summary\",\"round\":" + round + ",\"players\":" + sentTo
+                         + ",\"answered\":" + answered + ",\"correct\":" + correct
+                         + ",\"fanOutMicros\":" + TimeUnit.NANOSECONDS.toMicros(fanOut)
+                         + ",\"scoreMicros\":" + TimeUnit.NANOSECONDS.toMicros(scoringTime) + "}\n";
+        if (host != null && host.key.isValid()) send(host, ByteBuffer.wrap(summary.getBytes(StandardCharsets.UTF_8)));
+        System.out.printf("Round %d: %d players, %d answered, %d correct; fan-out %.1f ms, scored in %.2f ms%n",
+                          round, sentTo, answered, correct, fanOut / 1e6, scoringTime / 1e6);
+        QuizEvents.LiveRound event = new QuizEvents.LiveRound();
+        if (event.shouldCommit()) {
+            event.round = round;
+            event.questionId = question.getId();
+            event.players = sentTo;
+            event.answered = answered;
+            event.correct = correct;
+            event.fanOutTime = fanOut;
+            event.scoringTime = scoringTime;
+            event.commit();
+        }
+    }
+
+    // ---- score buckets ----
+
+    private void append(int score, int p) {
+        if (score == bucketHead.length) growBuckets();
+        topScore = Math.max(topScore, score);
+        next[p] = -1;
+        prev[p] = bucketTail[score];
+        if (bucketTail[score] >= 0) {
+            next[bucketTail[score]] = p;
+        } else {
+            bucketHead[score] = p;
+        }
+        bucketTail[score] = p;
+        bucketSize[score]++;
+    }
+
+    private void unlink(int score, int p) {
+        if (prev[p] >= 0) next[prev[p]] = next[p]; else bucketHead[score] = next[p];
+        if (next[p] >= 0) prev[next[p]] = prev[p]; else bucketTail[score] = prev[p];
+        bucketSize[score]--;
+    }
+
+    private void growBuckets() {
+        int n = bucketHead.length * 2;
+        int old = bucketHead.length;
+        bucketHead = Arrays.copyOf(bucketHead, n);
+        bucketTail = Arrays.copyOf(bucketTail, n);
+        Arrays.fill(bucketHead, old, n, -1);
+        Arrays.fill(bucketTail, old, n, -1);
+        bucketSize = Arrays.copyOf(bucketSize, n);
+        rankAt = Arrays.copyOf(rankAt, n);
+    }
+
+    private void growPlayers() {
+        int n = names.length * 2;
+        names = Arrays.copyOf(names, n);
+        connections = Arrays.copyOf(connections, n);
+        scores = Arrays.copyOf(scores, n);
+        choices = Arrays.copyOf(choices, n);
+        elapsed = Arrays.copyOf(elapsed, n);
+        next = Arrays.copyOf(next, n);
+        prev = Arrays.copyOf(prev, n);
+    }
+
+    // ---- writing ----
+
+    private static ByteBuffer encode(StringBuilder json) {
+        byte[] bytes = json.toString().getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+    }
+
+    private static ByteBuffer error(String message) {
+        StringBuilder json = new StringBuilder("{\"type\":\"error\",\"message\":");
+        QuizServer.quote(json, message);
+        return ByteBuffer.wrap(json.append("}\n").toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void broadcast(ByteBuffer message) {
+        for (int p = 0; p < playerCount; p++) {
+            if (connections[p] != null) send(connections[p], message);
+        }
+    }
+
+    // Writes message (from its start; its position is not kept) or queues what
+    // the socket would not take. Returns the queued view, or null if written.
+    private ByteBuffer send(Connection c, ByteBuffer message) {
+        if (!c.key.isValid()) return null;
+        message.rewind();
+        if (c.out.isEmpty()) {
+            try {
+                c.channel.write(message);
+            } catch (IOException e) {
+                close(c);
+                return null;
+            }
+            if (!message.hasRemaining()) return null;
+        }
+        if (c.out.size() == MAX_QUEUED) {
+            close(c); // too slow to keep up
+            return null;
+        }
+        ByteBuffer rest = message.duplicate();
+        c.out.add(rest);
+        c.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        return rest;
+    }
+
+    private void flush(Connection c) {
+        try {
+            ByteBuffer head;
+            while ((head = c.out.peek()) != null) {
+                c.channel.write(head);
+                if (head.hasRemaining()) return;
+                c.out.poll();
+                if (head == c.question) {
+                    c.question = null;
+                    if (open && c.deliveredAt == 0) {
+                        delivered(c, System.nanoTime());
+                        undelivered--;
+                    }
+                }
+            }
+            c.key.interestOps(SelectionKey.OP_READ);
+        } catch (IOException e) {
+            close(c);
+        }
+    }
+
+    private void close(Connection c) {
+        c.key.cancel();
+        try {
+            c.channel.close();
+        } catch (IOException e) {
+            // gone either way
+        }
+        if (c.player >= 0) connections[c.player] = null;
+        if (c.question != null && open && c.deliveredAt == 0) undelivered--;
+        c.question = null;
+        c.out.clear();
+    }
+
+    private static final class Connection {
+        final SocketChannel channel;
+        SelectionKey key;
+        final byte[] line = new byte[MAX_LINE];
+        int lineLength;
+        final ArrayDeque<ByteBuffer> out = new ArrayDeque<>(4);
+        int player = -1;
+        boolean host;
+        long deliveredAt; // when this round's question was fully written; 0 = not yet
+        ByteBuffer question; // this round's question while it is still queued
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package quiz;
+
+import javax.swing.*;
+import java.awt.*;
+
+// Answer button whose text is a WrappedLabel child rather than HTML. Mouse
+// input falls through the label to the button, and the label takes its font
+// and colours from the button, so callers style the button as usual.
+class OptionButton extends JButton {
+    private final WrappedLabel label = new WrappedLabel();
+
+    OptionButton() {
+        setLayout(new BorderLayout());
+        add(label, BorderLayout.CENTER);
+    }
+
+    void setOptionText(String text) {
+        label.setText(text);
+        getAccessibleContext().setAccessibleName(text);
+    }
+
+    String getOptionText() {
+        return label.getText();
+    }
+
+    // Size from the label; the button UI would only see the (empty) button text
+    @Override
+    public Dimension getPreferredSize() {
+        if (isPreferredSizeSet()) return super.getPreferredSize();
+        return getLayout().preferredLayoutSize(this);
+    }
+}
@@ -0,0 +1,188 @@
+package quiz;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.Arrays;
+
+// One dot per question, painted directly from a byte per question instead of
+// a JLabel each. Moving to the next question or marking an answer repaints
+// only the cells that changed.
+//
+// When the quiz has more questions than fit, the strip shows a page of cells
+// around the current question and a "Q n/total · correct" summary on the
+// right; crossing into the next page repaints the strip once. The summary is
+// a child component so the RepaintManager does not merge its dirty region
+// with a cell's into one wide rectangle.
+class ProgressStrip extends JComponent {
+    static final byte UPCOMING = 0;
+    static final byte CURRENT = 1;
+    static final byte DONE = 2; // answered before a resume, result unknown
+    static final byte CORRECT = 3;
+    static final byte WRONG = 4;
+
+    private static final int CELL = 22;
+    private static final int DOT = 12;
+    private static final int SUMMARY_WIDTH = 150;
+    private static final Color[] COLORS = {
+        Theme.PROGRESS_UPCOMING, Theme.PROGRESS_CURRENT, Theme.PROGRESS_DONE, Theme.CORRECT, Theme.WRONG
+    };
+
+    private final Insets insets = new Insets(0, 0, 0, 0); // reused by currentInsets()
+    private byte[] states = new byte[0];
+    private int count;
+    private int current = -1;
+    private int correct;
+    final JComponent summary = new JComponent() {
+        @Override
+        protected void paintComponent(Graphics g) {
+            paintSummary((Graphics2D) g, getWidth(), getHeight());
+        }
+    };
+
+    ProgressStrip() {
+        setOpaque(false);
+        setLayout(null);
+        summary.setFont(Theme.BODY_FONT);
+        add(summary);
+    }
+
+    // Starts a quiz of count questions with the first `answered` already done
+    void reset(int count, int answered) {
+        if (states.length < count) states = new byte[count];
+        this.count = count;
+        Arrays.fill(states, 0, count, UPCOMING);
+        Arrays.fill(states, 0, Math.min(answered, count), DONE);
+        current = -1;
+        correct = 0;
+        setCurrent(answered);
+        repaint();
+    }
+
+    void setCurrent(int index) {
+        if (index == current) return;
+        if (current >= 0 && current < count && states[current] == CURRENT) set(current, UPCOMING);
+        int oldStart = pageStart();
+        current = index;
+        if (index < count) set(index, CURRENT);
+        if (pageSize() < count) {
+            if (pageStart() != oldStart) repaint(); // turned the page
+            repaintSummary();
+        }
+    }
+
+    void setAnswered(int index, boolean isCorrect) {
+        if (index < 0 || index >= count) return;
+        if (states[index] == CORRECT) correct--;
+        if (isCorrect) correct++;
+        set(index, isCorrect ? CORRECT : WRONG);
+        if (pageSize() < count) repaintSummary();
+    }
+
+    byte getState(int index) {
+        return states[index];
+    }
+
+    private void set(int index, byte state) {
+        if (states[index] == state) return;
+        states[index] = state;
+        int start = pageStart();
+        int shown = Math.min(pageSize(), count);
+        if (index >= start && index < start + shown) {
+            repaint(firstCellX(shown) + (index - start) * CELL, currentInsets().top, CELL, CELL);
+        }
+    }
+
+    // First cell shown: the page holding the current question
+    private int pageStart() {
+        int page = pageSize();
+        if (page >= count) return 0;
+        int at = Math.max(0, Math.min(current, count - 1));
+        return Math.min(at / page * page, count - page);
+    }
+
+    // Cells that fit beside the summary, or all of them if they fit outright
+    private int pageSize() {
+        Insets insets = currentInsets();
+        int width = getWidth() - insets.left - insets.right;
+        if (count * CELL <= width) return Math.max(count, 1);
+        return Math.max(1, (width - SUMMARY_WIDTH) / CELL);
+    }
+
+    private int firstCellX(int shown) {
+        Insets insets = currentInsets();
+        int width = getWidth() - insets.left - insets.right;
+        int area = shown < count ? width - SUMMARY_WIDTH : width;
+        return insets.left + Math.max(0, (area - shown * CELL) / 2);
+    }
+
+    // Where index is painted while its page is shown
+    Rectangle cellBounds(int index) {
+        int shown = Math.min(pageSize(), count);
+        return new Rectangle(firstCellX(shown) + (index - pageStart()) * CELL, currentInsets().top, CELL, CELL);
+    }
+
+    private void repaintSummary() {
+        summary.repaint();
+    }
+
+    @Override
+    public void doLayout() {
+        Insets insets = currentInsets();
+        summary.setBounds(getWidth() - insets.right - SUMMARY_WIDTH, insets.top, SUMMARY_WIDTH, CELL);
+    }
+
+    @Override
+    public void setBounds(int x, int y, int width, int height) {
+        super.setBounds(x, y, width, height);
+        doLayout(); // keeps the summary placed without a validate pass
+    }
+
+    private Insets currentInsets() {
+        return getInsets(insets);
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        Insets insets = currentInsets();
+        return new Dimension(Math.min(count, QuizEngine.DEFAULT_QUESTION_COUNT) * CELL + insets.left + insets.right,
+                             CELL + insets.top + insets.bottom);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        if (count == 0) return;
+        Graphics2D g2d = (Graphics2D) g;
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        int shown = Math.min(pageSize(), count);
+        int start = pageStart();
+        int x0 = firstCellX(shown);
+        int top = currentInsets().top;
+        // Only the cells under the clip
+        Rectangle clip = g.getClipBounds();
+        int first = 0;
+        int last = shown - 1;
+        if (clip != null) {
+            first = Math.max(first, (clip.x - x0) / CELL);
+            last = Math.min(last, (clip.x + clip.width - x0) / CELL);
+        }
+        int inset = (CELL - DOT) / 2;
+        for (int c = first; c <= last; c++) {
+            byte state = states[start + c];
+            g2d.setColor(COLORS[state]);
+            if (state == UPCOMING) {
+                g2d.drawOval(x0 + c * CELL + inset, top + inset, DOT - 1, DOT - 1);
+            } else {
+                g2d.fillOval(x0 + c * CELL + inset, top + inset, DOT, DOT);
+            }
+        }
+    }
+
+    private void paintSummary(Graphics2D g2d, int width, int height) {
+        if (pageSize() >= count) return;
+        String text = "Q " + Math.min(current + 1, count) + "/" + count + " · " + correct + " ✓";
+        g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g2d.setColor(Color.WHITE);
+        FontMetrics fm = g2d.getFontMetrics();
+        g2d.drawString(text, (width - fm.stringWidth(text)) / 2, (height - fm.getHeight()) / 2 + fm.getAscent());
+    }
+}
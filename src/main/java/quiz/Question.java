@@ -0,0 +1,69 @@
+package quiz;
+
+// Flyweight view of one question in a QuestionBank. Holds only the bank and the
+// question id; text is fetched from the bank's columns on demand.
+class Question {
+    private final QuestionBank bank;
+    private final int id;
+
+    Question(QuestionBank bank, int id) {
+        this.bank = bank;
+        this.id = id;
+    }
+
+    // Position of correctAnswer among options (case-insensitive), or -1 if absent
+    static int indexOf(String[] options, String correctAnswer) {
+        for (int i = 0; i < options.length; i++) {
+            if (options[i].equalsIgnoreCase(correctAnswer)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    QuestionBank bank() {
+        return bank;
+    }
+
+    public String getCategory() {
+        return bank.categories().get(bank.category(id));
+    }
+
+    public Difficulty getDifficulty() {
+        return bank.difficulty(id);
+    }
+
+    public String getQuestionText() {
+        return bank.text(id);
+    }
+
+    public int getOptionCount() {
+        return bank.optionCount(id);
+    }
+
+    public String getOption(int index) {
+        return bank.option(id, index);
+    }
+
+    public String[] getOptions() {
+        String[] options = new String[bank.optionCount(id)];
+        for (int i = 0; i < options.length; i++) {
+            options[i] = bank.option(id, i);
+        }
+        return options;
+    }
+
+    // Text of the correct option, or null when the question has none
+    public String getCorrectAnswer() {
+        int correct = bank.correctIndex(id);
+        return correct < 0 ? null : bank.option(id, correct);
+    }
+
+    public int getCorrectIndex() {
+        return bank.correctIndex(id);
+    }
+}
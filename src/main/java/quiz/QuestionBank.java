@@ -0,0 +1,41 @@
+package quiz;
+
+import java.util.List;
+
+// Random-access source of questions, addressed by a dense id in [0, size()).
+// Implementations expose questions column by column so they can keep text in
+// shared arenas or memory-mapped files; get() returns a lightweight view.
+public interface QuestionBank {
+    String DEFAULT_CATEGORY = "General";
+
+    int size();
+
+    // Category names; category(id) indexes into this list
+    List<String> categories();
+
+    int category(int id);
+
+    Difficulty difficulty(int id);
+
+    String text(int id);
+
+    int optionCount(int id);
+
+    String option(int id, int index);
+
+    // Index of the correct option, or -1 when the question has none
+    int correctIndex(int id);
+
+    // Identity of the bank's content, never 0. Question ids are positions, so
+    // anything stored by id (answer statistics, checkpoints) is only meaningful
+    // for a bank with the same fingerprint. Hashed from the questions in id
+    // order as the bank is built or written, so reading it costs nothing.
+    long fingerprint();
+
+    default Question get(int id) {
+        if (id < 0 || id >= size()) {
+            throw new IndexOutOfBoundsException("Question id " + id + " out of range [0, " + size() + ")");
+        }
+        return new Question(this, id);
+    }
+}
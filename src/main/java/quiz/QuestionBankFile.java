@@ -0,0 +1,288 @@
+package quiz;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// On-disk question bank format (.qbank), big-endian:
+//
+//   header  int magic 'QZBK', int version, int count, int reserved, long indexOffset,
+//           long categoriesOffset, long fingerprint
+//   records per question: u8 category, u8 difficulty, u16 textLen, text (UTF-8),
+//           u8 optionCount, per option: u16 len, bytes (UTF-8), then u8 correctIndex (0xFF = none)
+//   index   long[count] absolute record offsets
+//   categories u16 count, per category: u16 len, name (UTF-8)
+//
+// Records are written in one streaming pass; the index goes at the end and
+// the header is patched on close, so a writer never holds the bank in memory.
+// The writer also hashes each question as it goes and stores the bank's
+// fingerprint in the header, so opening a bank never reads past the header.
+public final class QuestionBankFile {
+    static final int MAGIC = 0x515A424B; // "QZBK"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 40;
+    static final int TAG_BYTES = 2; // category and difficulty ahead of each record
+    static final int NO_ANSWER = 0xFF;
+
+    private QuestionBankFile() {
+    }
+
+    public static Writer create(Path path) throws IOException {
+        return new Writer(path);
+    }
+
+    public static Mapped open(Path path) throws IOException {
+        return new Mapped(path);
+    }
+
+    public static final class Writer implements Closeable {
+        private final FileChannel channel;
+        private final DataOutputStream out;
+        private long position = HEADER_SIZE;
+        private long[] offsets = new long[1024];
+        private int count;
+        private final List<String> categoryNames = new ArrayList<>();
+        private final Map<String, Integer> categoryIds = new HashMap<>();
+        private final Fingerprint fingerprint = new Fingerprint();
+
+        private Writer(Path path) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                       StandardOpenOption.TRUNCATE_EXISTING);
+            channel.position(HEADER_SIZE);
+            out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+        }
+
+        public void add(Question q) throws IOException {
+            add(q.getQuestionText(), q.getOptions(), q.getCorrectIndex(), q.getCategory(), q.getDifficulty());
+        }
+
+        public void add(String text, String[] options, String correctAnswer, String category,
+                        Difficulty difficulty) throws IOException {
+            add(text, options, Question.indexOf(options, correctAnswer), category, difficulty);
+        }
+
+        public void add(String text, String[] options, int correctIndex, String category,
+                        Difficulty difficulty) throws IOException {
+            if (options.length > 254) {
+                throw new IllegalArgumentException("Too many options: " + options.length);
+            }
+            if (count == offsets.length) {
+                offsets = Arrays.copyOf(offsets, count * 2);
+            }
+            int categoryId = categoryId(category);
+            fingerprint.addQuestion(text, options, correctIndex, categoryNames.get(categoryId), difficulty);
+            offsets[count++] = position;
+            out.writeByte(categoryId);
+            out.writeByte(difficulty.ordinal());
+            position += 2;
+            position += writeText(text);
+            out.writeByte(options.length);
+            position++;
+            for (String option : options) {
+                position += writeText(option);
+            }
+            out.writeByte(correctIndex < 0 || correctIndex >= options.length ? NO_ANSWER : correctIndex);
+            position++;
+        }
+
+        private int categoryId(String category) {
+            String name = category == null || category.isEmpty() ? QuestionBank.DEFAULT_CATEGORY : category;
+            Integer id = categoryIds.get(name);
+            if (id != null) return id;
+            if (categoryNames.size() == 256) {
+                throw new IllegalArgumentException("More than 256 categories");
+            }
+            categoryIds.put(name, categoryNames.size());
+            categoryNames.add(name);
+            return categoryNames.size() - 1;
+        }
+
+        private int writeText(String text) throws IOException {
+            byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > 0xFFFF) {
+                throw new IllegalArgumentException("Text longer than 65535 bytes: " + text.substring(0, 40) + "...");
+            }
+            out.writeShort(bytes.length);
+            out.write(bytes);
+            return 2 + bytes.length;
+        }
+
+        public int count() {
+            return count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                long indexOffset = position;
+                for (int i = 0; i < count; i++) {
+                    out.writeLong(offsets[i]);
+                }
+                long categoriesOffset = indexOffset + 8L * count;
+                out.writeShort(categoryNames.size());
+                for (String name : categoryNames) {
+                    writeText(name);
+                }
+                out.flush();
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                header.putInt(MAGIC).putInt(VERSION).putInt(count).putInt(0)
+                      .putLong(indexOffset).putLong(categoriesOffset).putLong(fingerprint.value()).flip();
+                channel.write(header, 0);
+                channel.force(true);
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    // Read-only, memory-mapped bank. Opening maps the file and reads the header;
+    // text is decoded straight from the mapping only when asked for, so startup
+    // cost and heap stay flat however large the bank is. Safe for concurrent readers.
+    // The file must not be modified while mapped: replace it by renaming a new
+    // file over it, never by rewriting it in place.
+    public static final class Mapped implements QuestionBank {
+        private final MappedByteBuffer buffer;
+        private final int count;
+        private final int indexOffset;
+        private final List<String> categoryNames;
+        private final long fingerprint;
+
+        private Mapped(Path path) throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (size > Integer.MAX_VALUE) {
+                    throw new IOException("Question bank larger than 2 GiB: " + path);
+                }
+                if (size < HEADER_SIZE) {
+                    throw new IOException("Not a question bank: " + path);
+                }
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IOException("Not a question bank: " + path);
+            }
+            int version = buffer.getInt(4);
+            if (version != VERSION) {
+                throw new IOException("Unsupported question bank version " + version + ": " + path);
+            }
+            long size = buffer.capacity();
+            count = buffer.getInt(8);
+            long index = buffer.getLong(16);
+            long categories = buffer.getLong(24);
+            fingerprint = buffer.getLong(32);
+            if (count < 0 || index < HEADER_SIZE || index + 8L * count > size
+                || categories < HEADER_SIZE || categories + 2 > size || fingerprint == 0) {
+                throw new IOException("Truncated or corrupt question bank: " + path);
+            }
+            indexOffset = (int) index;
+            int pos = (int) categories;
+            String[] names = new String[buffer.getShort(pos) & 0xFFFF];
+            pos += 2;
+            for (int i = 0; i < names.length; i++) {
+                int len = pos + 2 > size ? -1 : buffer.getShort(pos) & 0xFFFF;
+                if (len < 0 || pos + 2L + len > size) {
+                    throw new IOException("Truncated or corrupt question bank: " + path);
+                }
+                names[i] = readText(pos + 2, len);
+                pos += 2 + len;
+            }
+            categoryNames = Collections.unmodifiableList(Arrays.asList(names));
+        }
+
+        @Override
+        public int size() {
+            return count;
+        }
+
+        // Computed by the writer and read from the header
+        @Override
+        public long fingerprint() {
+            return fingerprint;
+        }
+
+        @Override
+        public List<String> categories() {
+            return categoryNames;
+        }
+
+        @Override
+        public int category(int id) {
+            return buffer.get(recordStart(id)) & 0xFF;
+        }
+
+        @Override
+        public Difficulty difficulty(int id) {
+            return Difficulty.fromCode(buffer.get(recordStart(id) + 1));
+        }
+
+        @Override
+        public String text(int id) {
+            int pos = record(id);
+            return readText(pos + 2, buffer.getShort(pos) & 0xFFFF);
+        }
+
+        @Override
+        public int optionCount(int id) {
+            int pos = record(id);
+            return buffer.get(pos + 2 + (buffer.getShort(pos) & 0xFFFF)) & 0xFF;
+        }
+
+        @Override
+        public String option(int id, int index) {
+            int pos = record(id);
+            pos += 2 + (buffer.getShort(pos) & 0xFFFF);
+            int options = buffer.get(pos++) & 0xFF;
+            if (index < 0 || index >= options) {
+                throw new IndexOutOfBoundsException("Option " + index + " of question " + id);
+            }
+            for (int i = 0; i < index; i++) {
+                pos += 2 + (buffer.getShort(pos) & 0xFFFF);
+            }
+            return readText(pos + 2, buffer.getShort(pos) & 0xFFFF);
+        }
+
+        @Override
+        public int correctIndex(int id) {
+            int pos = record(id);
+            pos += 2 + (buffer.getShort(pos) & 0xFFFF);
+            int options = buffer.get(pos++) & 0xFF;
+            for (int i = 0; i < options; i++) {
+                pos += 2 + (buffer.getShort(pos) & 0xFFFF);
+            }
+            int correct = buffer.get(pos) & 0xFF;
+            return correct == NO_ANSWER || correct >= options ? -1 : correct;
+        }
+
+        private int recordStart(int id) {
+            if (id < 0 || id >= count) {
+                throw new IndexOutOfBoundsException("Question id " + id + " out of range [0, " + count + ")");
+            }
+            return (int) buffer.getLong(indexOffset + 8 * id);
+        }
+
+        // Start of the text length, past any tag bytes
+        private int record(int id) {
+            return recordStart(id) + TAG_BYTES;
+        }
+
+        private String readText(int pos, int len) {
+            byte[] bytes = new byte[len];
+            buffer.get(pos, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
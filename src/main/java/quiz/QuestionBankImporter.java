@@ -0,0 +1,384 @@
+package quiz;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+// Converts CSV or JSON question lists into the binary .qbank format.
+// Both readers stream one question at a time. The import also keeps a
+// compact QuestionStore copy to validate, so it needs heap for the bank's
+// distinct text, though not for a String per question.
+//
+//   CSV:  question,option1,...,optionN,answer[,category,difficulty]   (RFC 4180 quoting)
+//         With a header row columns are matched by name (question, option*, answer,
+//         category, difficulty); without one they are positional and untagged.
+//   JSON: [{"question": "...", "options": ["...", ...], "answer": "...",
+//           "category": "...", "difficulty": "EASY|MEDIUM|HARD"}, ...]
+//
+// Missing (or JSON null) tags default to QuestionBank.DEFAULT_CATEGORY and
+// MEDIUM. A CSV row with columns missing is read as far as it goes rather
+// than stopping at the first one, so the QuestionBankValidator report lists it
+// along with every other unplayable or repeated question. A JSON entry whose
+// fields have the wrong type stops the import with its position. A bank with any validation errors is
+// not published: output is left as it was and the exit status is 1.
+//
+// Usage: java -cp quiz.jar quiz.QuestionBankImporter <input.csv|input.json> <output.qbank>
+public final class QuestionBankImporter {
+
+    public interface Sink {
+        void accept(String question, String[] options, String answer, String category,
+                    Difficulty difficulty) throws IOException;
+    }
+
+    private QuestionBankImporter() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: java -cp quiz.jar quiz.QuestionBankImporter <input.csv|input.json> <output.qbank>");
+            System.exit(2);
+        }
+        long start = System.nanoTime();
+        QuestionBankValidator.Report report = importFile(Paths.get(args[0]), Paths.get(args[1]));
+        if (report.errors() > 0) {
+            System.out.print(report);
+            System.out.printf("Not imported: %,d errors; %s is unchanged%n", report.errors(), args[1]);
+            System.exit(1);
+        }
+        System.out.printf("Imported %d questions into %s in %d ms%n",
+                          report.getQuestions(), args[1], (System.nanoTime() - start) / 1_000_000);
+        System.out.print(report);
+    }
+
+    // Writes a sibling temporary file and only if the bank has no validation
+    // errors renames it over output, so a server with the old bank mapped keeps
+    // reading the old file, and a watcher never sees a half-written or
+    // unplayable one. The same pass builds a QuestionStore to validate, so the
+    // temporary file is never mapped and can be moved or deleted on any
+    // platform. Returns the validation report; check its errors() to know
+    // whether output was replaced.
+    public static QuestionBankValidator.Report importFile(Path input, Path output) throws IOException {
+        Path partial = output.resolveSibling(output.getFileName() + ".partial");
+        QuestionBankValidator.Report report;
+        try {
+            QuestionStore.Builder copy = QuestionStore.builder();
+            try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8);
+                 QuestionBankFile.Writer writer = QuestionBankFile.create(partial)) {
+                Sink both = (question, options, answer, category, difficulty) -> {
+                    writer.add(question, options, answer, category, difficulty);
+                    copy.add(question, options, answer, category, difficulty);
+                };
+                if (input.getFileName().toString().toLowerCase().endsWith(".json")) {
+                    readJson(reader, both);
+                } else {
+                    readCsv(reader, both);
+                }
+            }
+            report = QuestionBankValidator.validate(copy.build());
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+        if (report.errors() > 0) {
+            Files.delete(partial);
+        } else {
+            Files.move(partial, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        return report;
+    }
+
+    public static QuestionStore readCsv(Reader reader) throws IOException {
+        QuestionStore.Builder builder = QuestionStore.builder();
+        readCsv(reader, builder::add);
+        return builder.build();
+    }
+
+    public static void readCsv(Reader reader, Sink sink) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> row;
+        boolean first = true;
+        int questionCol = 0;
+        int answerCol = -1; // -1: last column
+        int categoryCol = -1;
+        int difficultyCol = -1;
+        List<Integer> optionCols = null; // null: every column between question and answer
+        while ((row = csv.next()) != null) {
+            if (first && "question".equalsIgnoreCase(row.get(0).trim())) {
+                first = false;
+                optionCols = new ArrayList<>();
+                for (int i = 0; i < row.size(); i++) {
+                    String name = row.get(i).trim().toLowerCase();
+                    if (name.equals("question")) questionCol = i;
+                    else if (name.equals("answer")) answerCol = i;
+                    else if (name.equals("category")) categoryCol = i;
+                    else if (name.equals("difficulty")) difficultyCol = i;
+                    else if (name.startsWith("option")) optionCols.add(i);
+                }
+                if (answerCol < 0 || optionCols.size() < 2) {
+                    throw new IOException("Header needs question, at least two option columns and answer");
+                }
+                continue;
+            }
+            first = false;
+            if (row.size() == 1 && row.get(0).isEmpty()) continue; // blank line
+            String[] options;
+            String answer;
+            // Short rows get too few options or no answer, for the validator to report
+            if (optionCols == null) {
+                options = row.subList(1, Math.max(1, row.size() - 1)).toArray(new String[0]);
+                answer = row.size() > 1 ? row.get(row.size() - 1) : "";
+            } else {
+                List<String> present = new ArrayList<>(optionCols.size());
+                for (int col : optionCols) {
+                    // banks may mix 2- to N-option rows
+                    if (col < row.size() && !row.get(col).isEmpty()) present.add(row.get(col));
+                }
+                options = present.toArray(new String[0]);
+                answer = answerCol < row.size() ? row.get(answerCol) : "";
+            }
+            String category = categoryCol >= 0 && categoryCol < row.size() ? row.get(categoryCol) : null;
+            String difficulty = difficultyCol >= 0 && difficultyCol < row.size() ? row.get(difficultyCol) : null;
+            sink.accept(questionCol < row.size() ? row.get(questionCol) : "", options, answer, category,
+                        parseDifficulty(difficulty, "Line " + csv.line));
+        }
+    }
+
+    public static void readJson(Reader reader, Sink sink) throws IOException {
+        JsonReader json = new JsonReader(reader);
+        json.expect('[');
+        if (json.peek() == ']') {
+            json.read();
+            return;
+        }
+        int entry = 0;
+        do {
+            entry++;
+            Map<String, Object> object = json.readObject();
+            Object question = object.get("question");
+            Object options = object.get("options");
+            Object answer = object.get("answer");
+            if (!(question instanceof String) || !(options instanceof List) || !(answer instanceof String)) {
+                throw new IOException("Entry " + entry + ": needs \"question\", \"options\" and \"answer\" strings");
+            }
+            List<?> list = (List<?>) options;
+            String[] texts = new String[list.size()];
+            for (int i = 0; i < texts.length; i++) {
+                if (!(list.get(i) instanceof String)) {
+                    throw new IOException("Entry " + entry + ": option " + (i + 1) + " is not a string");
+                }
+                texts[i] = (String) list.get(i);
+            }
+            // null, or a tag of the wrong type, falls back to the default
+            Object category = object.get("category");
+            Object difficulty = object.get("difficulty");
+            sink.accept((String) question, texts, (String) answer,
+                        category instanceof String ? (String) category : null,
+                        parseDifficulty(difficulty instanceof String ? (String) difficulty : null, "Entry " + entry));
+        } while (json.comma(']'));
+    }
+
+    private static Difficulty parseDifficulty(String value, String where) throws IOException {
+        try {
+            return Difficulty.parse(value);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(where + ": unknown difficulty '" + value + "'");
+        }
+    }
+
+    private static final class CsvReader {
+        private final Reader in;
+        private int pending = -2; // -2 = nothing buffered
+        int line;
+
+        CsvReader(Reader in) {
+            this.in = in;
+        }
+
+        private int read() throws IOException {
+            if (pending != -2) {
+                int c = pending;
+                pending = -2;
+                return c;
+            }
+            return in.read();
+        }
+
+        List<String> next() throws IOException {
+            int c = read();
+            if (c == -1) return null;
+            line++;
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) throw new IOException("Line " + line + ": unterminated quoted field");
+                    if (c == '"') {
+                        int n = read();
+                        if (n == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            c = n;
+                            continue;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n' || c == -1) {
+                    break;
+                } else if (c == '\r') {
+                    int n = read();
+                    if (n != '\n') pending = n;
+                    break;
+                } else {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+
+    // Just enough JSON for the import format: objects, arrays, strings, and the
+    // literals null, true, false and numbers (as null, Boolean and Double)
+    private static final class JsonReader {
+        private static final Pattern NUMBER = Pattern.compile("-?(0|[1-9][0-9]*)(\\.[0-9]+)?([eE][-+]?[0-9]+)?");
+
+        private final Reader in;
+        private int pending = -2;
+
+        JsonReader(Reader in) {
+            this.in = in;
+        }
+
+        int peek() throws IOException {
+            if (pending == -2) {
+                int c;
+                do {
+                    c = in.read();
+                } while (c == ' ' || c == '\t' || c == '\n' || c == '\r');
+                pending = c;
+            }
+            return pending;
+        }
+
+        int read() throws IOException {
+            int c = peek();
+            pending = -2;
+            return c;
+        }
+
+        void expect(char expected) throws IOException {
+            int c = read();
+            if (c != expected) {
+                throw new IOException("Expected '" + expected + "' but found " + (c == -1 ? "end of input" : "'" + (char) c + "'"));
+            }
+        }
+
+        // Consumes a ',' (returns true) or the closing bracket (returns false)
+        boolean comma(char close) throws IOException {
+            int c = read();
+            if (c == ',') return true;
+            if (c == close) return false;
+            throw new IOException("Expected ',' or '" + close + "'");
+        }
+
+        Map<String, Object> readObject() throws IOException {
+            Map<String, Object> object = new HashMap<>();
+            expect('{');
+            if (peek() == '}') {
+                read();
+                return object;
+            }
+            do {
+                String key = readString();
+                expect(':');
+                object.put(key, readValue());
+            } while (comma('}'));
+            return object;
+        }
+
+        private Object readValue() throws IOException {
+            int c = peek();
+            if (c == '"') return readString();
+            if (c == '{') return readObject();
+            if (c == '[') {
+                read();
+                List<Object> list = new ArrayList<>();
+                if (peek() == ']') {
+                    read();
+                    return list;
+                }
+                do {
+                    list.add(readValue());
+                } while (comma(']'));
+                return list;
+            }
+            StringBuilder literal = new StringBuilder();
+            for (c = read(); c != -1 && c != ',' && c != '}' && c != ']' && c != ':'
+                             && c != ' ' && c != '\t' && c != '\n' && c != '\r'; c = in.read()) {
+                literal.append((char) c);
+            }
+            pending = c == -1 || c == ',' || c == '}' || c == ']' || c == ':' ? c : -2;
+            String text = literal.toString();
+            switch (text) {
+                case "null": return null;
+                case "true": return Boolean.TRUE;
+                case "false": return Boolean.FALSE;
+                default:
+                    if (NUMBER.matcher(text).matches()) return Double.valueOf(text);
+                    throw new IOException(text.isEmpty() ? "Expected a value" : "Unexpected '" + text + "'");
+            }
+        }
+
+        private String readString() throws IOException {
+            expect('"');
+            StringBuilder sb = new StringBuilder();
+            while (true) {
+                int c = in.read();
+                if (c == -1) throw new IOException("Unterminated string");
+                if (c == '"') return sb.toString();
+                if (c == '\\') {
+                    c = in.read();
+                    switch (c) {
+                        case -1: throw new IOException("Unterminated string");
+                        case 'n': sb.append('\n'); break;
+                        case 't': sb.append('\t'); break;
+                        case 'r': sb.append('\r'); break;
+                        case 'b': sb.append('\b'); break;
+                        case 'f': sb.append('\f'); break;
+                        case 'u':
+                            int code = 0;
+                            for (int i = 0; i < 4; i++) {
+                                int digit = Character.digit(in.read(), 16); // -1 for EOF too
+                                if (digit < 0) throw new IOException("Bad \\u escape in string");
+                                code = code << 4 | digit;
+                            }
+                            sb.append((char) code);
+                            break;
+                        default: sb.append((char) c);
+                    }
+                } else {
+                    sb.append((char) c);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package quiz;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+// Locates the question bank shared by the desktop game and the server.
+public final class QuestionBankLoader {
+
+    private QuestionBankLoader() {
+    }
+
+    public static Path defaultBankFile() {
+        return Paths.get(System.getProperty("quiz.bank", "questions.qbank"));
+    }
+
+    // Loads the bank named by -Dquiz.bank (default questions.qbank) when it
+    // exists; otherwise falls back to the questions.csv bundled on the classpath.
+    public static QuestionBank loadDefault() throws IOException {
+        Path bankFile = defaultBankFile();
+        if (Files.exists(bankFile)) {
+            return load(bankFile);
+        }
+        InputStream in = QuestionBankLoader.class.getResourceAsStream("/questions.csv");
+        if (in == null) {
+            throw new IOException("No question bank at " + bankFile + " and no bundled questions.csv");
+        }
+        try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            return QuestionBankImporter.readCsv(reader);
+        }
+    }
+
+    // A .csv or .json file is parsed onto the heap; anything else is opened as a
+    // memory-mapped .qbank
+    public static QuestionBank load(Path file) throws IOException {
+        String name = file.getFileName().toString().toLowerCase();
+        if (!name.endsWith(".csv") && !name.endsWith(".json")) {
+            return QuestionBankFile.open(file);
+        }
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            if (name.endsWith(".csv")) return QuestionBankImporter.readCsv(reader);
+            QuestionStore.Builder builder = QuestionStore.builder();
+            QuestionBankImporter.readJson(reader, builder::add);
+            return builder.build();
+        }
+    }
+}
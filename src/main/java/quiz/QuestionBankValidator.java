@@ -0,0 +1,272 @@
+package quiz;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+// Finds the questions in a bank that cannot be played as intended, and the
+// ones that repeat each other, and sums them up in a compact Report instead
+// of stopping at the first problem.
+//
+// Per-question checks (answer among the options, option count, blank text,
+// repeated options) run over the ids as a parallel stream in the common
+// fork/join pool, each worker collecting into its own Report; the reports
+// are merged at the end. The same pass hashes each question's text,
+// normalised to lower-case letters and digits with single spaces between
+// words, without building the normalised string. The hashes are packed with
+// the ids into a long[] and parallel-sorted, so equal texts end up
+// adjacent; only those candidates are normalised for real and compared, so a
+// hash collision is never reported. Memory beyond the bank is one long per
+// question.
+//
+// Banks keep the answer as an option index, so an answer that matched no
+// option on import (a typo, say) shows up here as NO_ANSWER.
+//
+// Usage: java -cp quiz.jar quiz.QuestionBankValidator <bank.qbank|bank.csv|bank.json>
+public final class QuestionBankValidator {
+    private static final int DESKTOP_OPTIONS = 4; // option buttons in QuizGameUI
+    private static final int SAMPLES = 5;
+
+    public enum Issue {
+        NO_ANSWER(true, "answer is not one of the options"),
+        TOO_FEW_OPTIONS(true, "fewer than two options"),
+        REPEATED_OPTION(true, "two options the same"),
+        BLANK_TEXT(true, "blank question or option"),
+        TOO_MANY_OPTIONS(false, "more than " + DESKTOP_OPTIONS + " options; the desktop game shows the first "
+                                + DESKTOP_OPTIONS),
+        DUPLICATE_QUESTION(false, "same question as an earlier one");
+
+        private final boolean error;
+        private final String description;
+
+        Issue(boolean error, String description) {
+            this.error = error;
+            this.description = description;
+        }
+
+        public boolean isError() {
+            return error;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    private QuestionBankValidator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: java -cp quiz.jar quiz.QuestionBankValidator <bank.qbank|bank.csv|bank.json>");
+            System.exit(2);
+        }
+        Report report = validate(QuestionBankLoader.load(Paths.get(args[0])));
+        System.out.print(report);
+        System.exit(report.errors() > 0 ? 1 : 0);
+    }
+
+    public static Report validate(QuestionBank bank) {
+        long start = System.nanoTime();
+        int n = bank.size();
+        int idBits = Math.max(1, 32 - Integer.numberOfLeadingZeros(n - 1));
+        long[] keys = new long[n];
+        Report report = IntStream.range(0, n).parallel().collect(Report::new, (r, id) -> {
+            keys[id] = check(bank, id, r) >>> idBits << idBits | id;
+        }, Report::merge);
+        Arrays.parallelSort(keys);
+        findDuplicates(bank, keys, idBits, report);
+        report.questions = n;
+        report.nanos = System.nanoTime() - start;
+        return report;
+    }
+
+    // Reports id's own problems; returns the hash of its normalised text
+    private static long check(QuestionBank bank, int id, Report report) {
+        int options = bank.optionCount(id);
+        int correct = bank.correctIndex(id);
+        if (correct < 0 || correct >= options) report.add(Issue.NO_ANSWER, id, -1);
+        if (options < 2) report.add(Issue.TOO_FEW_OPTIONS, id, -1);
+        if (options > DESKTOP_OPTIONS) report.add(Issue.TOO_MANY_OPTIONS, id, -1);
+        String text = bank.text(id);
+        boolean blank = text.isBlank();
+        // Options are few; comparing every pair of hashes beats a set
+        long[] hashes = new long[options];
+        boolean repeated = false;
+        for (int i = 0; i < options; i++) {
+            String option = bank.option(id, i);
+            if (option.isBlank()) blank = true;
+            hashes[i] = normalisedHash(option);
+            for (int j = 0; j < i && !repeated; j++) {
+                repeated = hashes[i] == hashes[j] && normalise(option).equals(normalise(bank.option(id, j)));
+            }
+        }
+        if (blank) report.add(Issue.BLANK_TEXT, id, -1);
+        if (repeated) report.add(Issue.REPEATED_OPTION, id, -1);
+        return normalisedHash(text);
+    }
+
+    // Runs of equal hashes are candidates; within one, each text repeats the
+    // lowest id with the same normalised text
+    private static void findDuplicates(QuestionBank bank, long[] keys, int idBits, Report report) {
+        long idMask = (1L << idBits) - 1;
+        for (int start = 0, end; start < keys.length; start = end) {
+            end = start + 1;
+            while (end < keys.length && keys[end] >>> idBits == keys[start] >>> idBits) end++;
+            if (end - start == 1) continue;
+            String[] texts = new String[end - start];
+            for (int i = start; i < end; i++) {
+                int id = (int) (keys[i] & idMask);
+                texts[i - start] = normalise(bank.text(id));
+                for (int j = start; j < i; j++) {
+                    if (texts[j - start].equals(texts[i - start])) {
+                        report.add(Issue.DUPLICATE_QUESTION, id, (int) (keys[j] & idMask));
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    // Lower-case letters and digits, words separated by single spaces
+    static String normalise(String s) {
+        StringBuilder sb = new StringBuilder(s.length());
+        boolean gap = false;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (gap && sb.length() > 0) sb.append(' ');
+                gap = false;
+                sb.append(Character.toLowerCase(c));
+            } else {
+                gap = true;
+            }
+        }
+        return sb.toString();
+    }
+
+    // 64-bit FNV-1a over what normalise(s) would produce, finished with the
+    // MurmurHash3 mixer so the high bits, which the sort key keeps, are spread
+    static long normalisedHash(String s) {
+        long h = 0xcbf29ce484222325L;
+        boolean gap = false;
+        boolean any = false;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (gap && any) h = (h ^ ' ') * 0x100000001b3L;
+                gap = false;
+                any = true;
+                h = (h ^ Character.toLowerCase(c)) * 0x100000001b3L;
+            } else {
+                gap = true;
+            }
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        return h ^ h >>> 33;
+    }
+
+    // Counts per issue and the lowest few ids for each
+    public static final class Report {
+        private final int[] counts = new int[Issue.values().length];
+        // Per issue, up to SAMPLES ids in ascending order, each with the id it
+        // repeats (or -1) in the low half
+        private final long[][] samples = new long[Issue.values().length][SAMPLES];
+        private int questions;
+        private long nanos;
+
+        private void add(Issue issue, int id, int other) {
+            int k = issue.ordinal();
+            int kept = Math.min(counts[k], SAMPLES);
+            counts[k]++;
+            long sample = (long) id << 32 | (other & 0xFFFFFFFFL);
+            if (kept == SAMPLES) {
+                if (sample >= samples[k][SAMPLES - 1]) return;
+                kept--; // the highest gives way
+            }
+            int at = kept;
+            while (at > 0 && samples[k][at - 1] > sample) {
+                samples[k][at] = samples[k][at - 1];
+                at--;
+            }
+            samples[k][at] = sample;
+        }
+
+        private void merge(Report other) {
+            for (Issue issue : Issue.values()) {
+                int k = issue.ordinal();
+                int theirs = Math.min(other.counts[k], SAMPLES);
+                int total = counts[k] + other.counts[k];
+                for (int i = 0; i < theirs; i++) {
+                    long sample = other.samples[k][i];
+                    add(issue, (int) (sample >>> 32), (int) sample);
+                }
+                counts[k] = total;
+            }
+        }
+
+        public int count(Issue issue) {
+            return counts[issue.ordinal()];
+        }
+
+        public int errors() {
+            int errors = 0;
+            for (Issue issue : Issue.values()) {
+                if (issue.isError()) errors += counts[issue.ordinal()];
+            }
+            return errors;
+        }
+
+        public int warnings() {
+            int warnings = 0;
+            for (Issue issue : Issue.values()) {
+                if (!issue.isError()) warnings += counts[issue.ordinal()];
+            }
+            return warnings;
+        }
+
+        // The lowest ids with issue, at most a few
+        public int[] sampleIds(Issue issue) {
+            int k = issue.ordinal();
+            int[] ids = new int[Math.min(counts[k], SAMPLES)];
+            for (int i = 0; i < ids.length; i++) ids[i] = (int) (samples[k][i] >>> 32);
+            return ids;
+        }
+
+        public int getQuestions() {
+            return questions;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        // One line of totals, then one per issue found with a few example ids
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("Validated %,d questions in %d ms (%d cores): %,d errors, %,d warnings;"
+                                    + " questions are numbered from 0 in file order%n",
+                                    questions, TimeUnit.NANOSECONDS.toMillis(nanos),
+                                    Runtime.getRuntime().availableProcessors(), errors(), warnings()));
+            for (Issue issue : Issue.values()) {
+                int k = issue.ordinal();
+                if (counts[k] == 0) continue;
+                sb.append(String.format("  %-7s %,9d  %s, e.g.", issue.isError() ? "error" : "warning", counts[k],
+                                        issue.getDescription()));
+                for (int i = 0; i < Math.min(counts[k], SAMPLES); i++) {
+                    sb.append(i == 0 ? " " : ", ").append('#').append(samples[k][i] >>> 32);
+                    int other = (int) samples[k][i];
+                    if (other >= 0) sb.append(" (#").append(other).append(')');
+                }
+                sb.append(System.lineSeparator());
+            }
+            return sb.toString();
+        }
+    }
+}
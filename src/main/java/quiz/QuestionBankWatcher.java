@@ -0,0 +1,148 @@
+package quiz;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Hot-reloadable question bank. current() is the latest immutable
+// QuestionIndex snapshot (bank plus tag index), read with one volatile load
+// and no locks. A daemon thread watches the bank file's directory; once
+// changes to the file have been quiet for SETTLE_MILLIS it loads and indexes
+// the new version off to the side and publishes it with a single volatile
+// write.
+//
+// Sessions hold on to the snapshot they started with (a QuizEngine keeps its
+// Selection, and through it its bank), so players in a game never see the
+// bank change under them; only sessions started afterwards get the new one.
+// A .qbank snapshot is a mapping of the file, not a copy, so that holds only
+// when the file is replaced atomically, by QuestionBankImporter (which writes
+// a temporary file and renames it over the old one) or by mv. Overwriting a
+// .qbank in place rewrites the bytes under every session still mapping it, and
+// truncating it makes their reads fault. CSV and JSON banks are read onto the
+// heap and may be edited in place.
+// A file that fails to load, or that QuestionBankValidator finds errors in
+// (questions that cannot be answered or shown), is reported and the current
+// snapshot stays.
+// Question ids are positions in a snapshot, so whatever is kept by id must
+// follow the bank's fingerprint: onReload() listeners run with each new
+// snapshot before it is published (QuizMetrics.useBank switches the answer
+// statistics there), and checkpoints record the fingerprint of the bank their
+// ids refer to.
+public final class QuestionBankWatcher implements Closeable {
+    private static final long SETTLE_MILLIS = 250;
+
+    private final Path file;
+    private final WatchService watcher; // null for a fixed bank
+    private final Thread thread;
+    private volatile QuestionIndex current;
+    private volatile int reloads;
+    private volatile Consumer<QuestionIndex> listener = next -> { };
+
+    private QuestionBankWatcher(Path file, QuestionIndex initial) throws IOException {
+        this.file = file == null ? null : file.toAbsolutePath();
+        this.current = initial;
+        if (file == null) {
+            watcher = null;
+            thread = null;
+            return;
+        }
+        watcher = FileSystems.getDefault().newWatchService();
+        this.file.getParent().register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+                                       StandardWatchEventKinds.ENTRY_MODIFY);
+        thread = new Thread(this::watchLoop, "question-bank-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // Serves initial, then whatever file holds each time it changes. file need
+    // not exist yet, but its directory must.
+    public static QuestionBankWatcher watch(Path file, QuestionIndex initial) throws IOException {
+        return new QuestionBankWatcher(file, initial);
+    }
+
+    // Always serves index
+    public static QuestionBankWatcher fixed(QuestionIndex index) {
+        try {
+            return new QuestionBankWatcher(null, index);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    public QuestionIndex current() {
+        return current;
+    }
+
+    public int reloads() {
+        return reloads;
+    }
+
+    // Called on the watch thread with each reloaded snapshot, just before
+    // current() starts returning it
+    public void onReload(Consumer<QuestionIndex> listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (watcher != null) watcher.close(); // ends the watch loop
+    }
+
+    private void watchLoop() {
+        try {
+            while (true) {
+                if (!changed(watcher.take())) continue;
+                // Editors and copies write in several steps; wait for the file to settle
+                WatchKey key;
+                while ((key = watcher.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    changed(key);
+                }
+                reload();
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            // closed
+        }
+    }
+
+    // Drains key's events; true if any of them touched the bank file
+    private boolean changed(WatchKey key) {
+        boolean touched = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            Object name = event.context();
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || file.getFileName().equals(name)) touched = true;
+        }
+        key.reset();
+        return touched;
+    }
+
+    void reload() {
+        if (!Files.exists(file)) return;
+        long start = System.nanoTime();
+        try {
+            QuestionBank loaded = QuestionBankLoader.load(file);
+            QuestionBankValidator.Report report = QuestionBankValidator.validate(loaded);
+            if (report.errors() > 0) {
+                System.err.print("Keeping the current question bank; " + file + " has errors:"
+                                 + System.lineSeparator() + report);
+                return;
+            }
+            QuestionIndex next = new QuestionIndex(loaded);
+            listener.accept(next);
+            current = next;
+            reloads++;
+            System.err.printf("Reloaded %d questions from %s in %d ms%n", next.bank().size(), file,
+                              TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Keeping the current question bank; could not load " + file + ": " + e);
+        }
+    }
+}
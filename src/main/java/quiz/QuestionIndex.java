@@ -0,0 +1,163 @@
+package quiz;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Precomputed tag index over a QuestionBank: one sorted id array per
+// (category, difficulty) bucket, built once in two linear passes.
+//
+// A Selection resolves a set of categories and difficulties to its buckets
+// up front, so a session can draw k distinct questions from it in O(k) with a
+// sparse (hash-backed) partial Fisher-Yates shuffle. Draws never touch or copy
+// the whole bank, and each session passes in its own SplittableRandom.
+public final class QuestionIndex {
+    private static final int DIFFICULTIES = Difficulty.values().length;
+
+    private final QuestionBank bank;
+    private final int[][] buckets; // [category * DIFFICULTIES + difficulty] -> question ids
+
+    public QuestionIndex(QuestionBank bank) {
+        this.bank = bank;
+        int bucketCount = bank.categories().size() * DIFFICULTIES;
+        int n = bank.size();
+        int[] sizes = new int[bucketCount];
+        for (int id = 0; id < n; id++) {
+            sizes[bucket(bank.category(id), bank.difficulty(id))]++;
+        }
+        buckets = new int[bucketCount][];
+        for (int b = 0; b < bucketCount; b++) {
+            buckets[b] = new int[sizes[b]];
+        }
+        int[] fill = new int[bucketCount];
+        for (int id = 0; id < n; id++) {
+            int b = bucket(bank.category(id), bank.difficulty(id));
+            buckets[b][fill[b]++] = id;
+        }
+    }
+
+    private static int bucket(int category, Difficulty difficulty) {
+        return category * DIFFICULTIES + difficulty.ordinal();
+    }
+
+    public QuestionBank bank() {
+        return bank;
+    }
+
+    public int count(int category, Difficulty difficulty) {
+        return buckets[bucket(category, difficulty)].length;
+    }
+
+    public Selection all() {
+        return select(bank.categories(), EnumSet.allOf(Difficulty.class));
+    }
+
+    // Unknown category names are ignored; an empty collection means every category
+    public Selection select(Collection<String> categories, EnumSet<Difficulty> difficulties) {
+        List<String> names = bank.categories();
+        List<int[]> chosen = new ArrayList<>();
+        for (int c = 0; c < names.size(); c++) {
+            if (!categories.isEmpty() && !categories.contains(names.get(c))) continue;
+            for (Difficulty d : difficulties) {
+                int[] ids = buckets[bucket(c, d)];
+                if (ids.length > 0) chosen.add(ids);
+            }
+        }
+        return new Selection(bank, chosen.toArray(new int[0][]));
+    }
+
+    // Immutable, shareable set of buckets; safe to draw from on many threads
+    public static final class Selection {
+        private final QuestionBank bank;
+        private final int[][] parts;
+        private final int[] ends; // ends[i] = total size of parts[0..i]
+        private final int size;
+
+        private Selection(QuestionBank bank, int[][] parts) {
+            this.bank = bank;
+            this.parts = parts;
+            this.ends = new int[parts.length];
+            int total = 0;
+            for (int i = 0; i < parts.length; i++) {
+                total += parts[i].length;
+                ends[i] = total;
+            }
+            this.size = total;
+        }
+
+        public QuestionBank bank() {
+            return bank;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        // k distinct question ids in random order, k clamped to size(); O(k)
+        public int[] draw(int k, SplittableRandom random) {
+            k = Math.min(k, size);
+            int[] result = new int[k];
+            SwapMap swaps = new SwapMap(k);
+            for (int i = 0; i < k; i++) {
+                int j = i + random.nextInt(size - i);
+                int picked = swaps.get(j);
+                swaps.put(j, swaps.get(i));
+                result[i] = idAt(picked);
+            }
+            return result;
+        }
+
+        // Question id at position 0..size()-1, in bucket order
+        int idAt(int position) {
+            int part = 0;
+            if (parts.length > 8) {
+                part = Arrays.binarySearch(ends, position + 1);
+                if (part < 0) part = -part - 1;
+            } else {
+                while (ends[part] <= position) part++;
+            }
+            int start = part == 0 ? 0 : ends[part - 1];
+            return parts[part][position - start];
+        }
+    }
+
+    // Virtual array of positions for the sparse Fisher-Yates: identity except
+    // for entries displaced by earlier swaps, kept in open addressing
+    private static final class SwapMap {
+        private final int[] keys;
+        private final int[] values;
+        private final int mask;
+
+        SwapMap(int k) {
+            int capacity = Integer.highestOneBit(Math.max(4, k * 4) - 1) << 1;
+            keys = new int[capacity];
+            values = new int[capacity];
+            Arrays.fill(keys, -1);
+            mask = capacity - 1;
+        }
+
+        int get(int key) {
+            for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+                if (keys[i] == key) return values[i];
+                if (keys[i] == -1) return key;
+            }
+        }
+
+        void put(int key, int value) {
+            for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+                if (keys[i] == key || keys[i] == -1) {
+                    keys[i] = key;
+                    values[i] = value;
+                    return;
+                }
+            }
+        }
+
+        private static int mix(int key) {
+            return key * 0x9E3779B9 >>> 7;
+        }
+    }
+}
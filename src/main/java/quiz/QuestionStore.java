@@ -0,0 +1,203 @@
+package quiz;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Columnar, heap-resident question bank. All text lives once in a shared UTF-8
+// arena (repeated options such as "Both A and B" are pooled), and each question
+// is a handful of int columns plus bytes for the correct option and tags. A bank of
+// millions of questions is therefore a few large arrays rather than millions of
+// String/String[] objects; Question is only a (store, id) view over it.
+public final class QuestionStore implements QuestionBank {
+    private final byte[] arena;
+    private final int[] stringOffsets; // string s spans arena[stringOffsets[s], stringOffsets[s + 1])
+    private final int[] textRefs;      // question -> string id of its text
+    private final int[] optionStarts;  // question -> first slot in optionRefs; length size + 1
+    private final int[] optionRefs;    // option slot -> string id
+    private final byte[] correct;      // question -> correct option index, unsigned; 0xFF when none
+    private final byte[] categories;   // question -> index into categoryNames
+    private final byte[] difficulties; // question -> Difficulty ordinal
+    private final List<String> categoryNames;
+    private final int size;
+    private final long fingerprint;
+
+    private QuestionStore(Builder b) {
+        this.size = b.size;
+        this.arena = Arrays.copyOf(b.arena, b.arenaLength);
+        this.stringOffsets = Arrays.copyOf(b.stringOffsets, b.stringCount + 1);
+        this.textRefs = Arrays.copyOf(b.textRefs, b.size);
+        this.optionStarts = Arrays.copyOf(b.optionStarts, b.size + 1);
+        this.optionRefs = Arrays.copyOf(b.optionRefs, b.optionCount);
+        this.correct = Arrays.copyOf(b.correct, b.size);
+        this.categories = Arrays.copyOf(b.categories, b.size);
+        this.difficulties = Arrays.copyOf(b.difficulties, b.size);
+        this.categoryNames = Collections.unmodifiableList(new ArrayList<>(b.categoryNames));
+        this.fingerprint = b.fingerprint.value();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public List<String> categories() {
+        return categoryNames;
+    }
+
+    @Override
+    public int category(int id) {
+        return categories[id] & 0xFF;
+    }
+
+    @Override
+    public Difficulty difficulty(int id) {
+        return Difficulty.fromCode(difficulties[id]);
+    }
+
+    @Override
+    public String text(int id) {
+        return string(textRefs[id]);
+    }
+
+    @Override
+    public int optionCount(int id) {
+        return optionStarts[id + 1] - optionStarts[id];
+    }
+
+    @Override
+    public String option(int id, int index) {
+        if (index < 0 || index >= optionCount(id)) {
+            throw new IndexOutOfBoundsException("Option " + index + " of question " + id);
+        }
+        return string(optionRefs[optionStarts[id] + index]);
+    }
+
+    @Override
+    public int correctIndex(int id) {
+        int c = correct[id] & 0xFF;
+        return c == 0xFF ? -1 : c;
+    }
+
+    @Override
+    public long fingerprint() {
+        return fingerprint;
+    }
+
+    // Distinct strings held in the arena; a measure of how well text is pooled
+    public int distinctStrings() {
+        return stringOffsets.length - 1;
+    }
+
+    public long arenaBytes() {
+        return arena.length;
+    }
+
+    private String string(int s) {
+        int start = stringOffsets[s];
+        return new String(arena, start, stringOffsets[s + 1] - start, StandardCharsets.UTF_8);
+    }
+
+    public static final class Builder {
+        private final Map<String, Integer> pool = new HashMap<>();
+        private byte[] arena = new byte[4096];
+        private int arenaLength;
+        private int[] stringOffsets = new int[257];
+        private int stringCount;
+        private int[] textRefs = new int[64];
+        private int[] optionStarts = new int[65];
+        private int[] optionRefs = new int[256];
+        private int optionCount;
+        private byte[] correct = new byte[64];
+        private byte[] categories = new byte[64];
+        private byte[] difficulties = new byte[64];
+        private final List<String> categoryNames = new ArrayList<>();
+        private final Map<String, Integer> categoryIds = new HashMap<>();
+        private final Fingerprint fingerprint = new Fingerprint();
+        private int size;
+
+        private Builder() {
+        }
+
+        public Builder add(String text, String[] options, int correctIndex, String category, Difficulty difficulty) {
+            if (options.length > 254) { // as in QuestionBankFile
+                throw new IllegalArgumentException("Too many options: " + options.length);
+            }
+            if (size == textRefs.length) {
+                int capacity = size * 2;
+                textRefs = Arrays.copyOf(textRefs, capacity);
+                optionStarts = Arrays.copyOf(optionStarts, capacity + 1);
+                correct = Arrays.copyOf(correct, capacity);
+                categories = Arrays.copyOf(categories, capacity);
+                difficulties = Arrays.copyOf(difficulties, capacity);
+            }
+            int categoryId = categoryId(category);
+            fingerprint.addQuestion(text, options, correctIndex, categoryNames.get(categoryId), difficulty);
+            categories[size] = (byte) categoryId;
+            difficulties[size] = (byte) difficulty.ordinal();
+            textRefs[size] = intern(text);
+            optionStarts[size] = optionCount;
+            for (String option : options) {
+                if (optionCount == optionRefs.length) {
+                    optionRefs = Arrays.copyOf(optionRefs, optionCount * 2);
+                }
+                optionRefs[optionCount++] = intern(option);
+            }
+            correct[size] = (byte) (correctIndex >= 0 && correctIndex < options.length ? correctIndex : 0xFF);
+            size++;
+            optionStarts[size] = optionCount;
+            return this;
+        }
+
+        public Builder add(String text, String[] options, String correctAnswer, String category, Difficulty difficulty) {
+            return add(text, options, Question.indexOf(options, correctAnswer), category, difficulty);
+        }
+
+        private int categoryId(String category) {
+            String name = category == null || category.isEmpty() ? DEFAULT_CATEGORY : category;
+            Integer id = categoryIds.get(name);
+            if (id != null) return id;
+            if (categoryNames.size() == 256) {
+                throw new IllegalArgumentException("More than 256 categories");
+            }
+            categoryIds.put(name, categoryNames.size());
+            categoryNames.add(name);
+            return categoryNames.size() - 1;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        private int intern(String s) {
+            Integer existing = pool.get(s);
+            if (existing != null) return existing;
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            if (arenaLength + bytes.length > arena.length) {
+                arena = Arrays.copyOf(arena, Math.max(arena.length * 2, arenaLength + bytes.length));
+            }
+            System.arraycopy(bytes, 0, arena, arenaLength, bytes.length);
+            arenaLength += bytes.length;
+            if (stringCount + 1 == stringOffsets.length) {
+                stringOffsets = Arrays.copyOf(stringOffsets, stringOffsets.length * 2);
+            }
+            int id = stringCount++;
+            stringOffsets[stringCount] = arenaLength;
+            pool.put(s, id);
+            return id;
+        }
+
+        public QuestionStore build() {
+            return new QuestionStore(this);
+        }
+    }
+}
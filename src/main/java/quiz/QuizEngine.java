@@ -0,0 +1,244 @@
+package quiz;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Headless quiz session: question order, position, score and countdown.
+// Answers are scored by option index, so nothing here touches Swing or strings
+// and one JVM can host as many sessions as it has memory for. The countdown is
+// an absolute System.nanoTime() deadline; a QuizScheduler.Countdown armed with
+// getDeadline() drives ticks and timeouts. Answers, timeouts and completed
+// sessions are reported to QuizMetrics.shared().
+//
+// A session either draws its questions up front from a Selection, or, in
+// adaptive mode, asks an AdaptiveSelector for each next question as it goes,
+// matched to the ability estimated from the answers so far.
+public class QuizEngine {
+    public static final int SECONDS_PER_QUESTION = 15;
+    public static final int DEFAULT_QUESTION_COUNT = 30;
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final QuestionBank bank;
+    private final QuestionIndex.Selection selection; // null in adaptive mode
+    private final AdaptiveSelector.Session adaptive; // null unless adaptive
+    private final int questionCount;
+    private final SplittableRandom random;
+    private int[] order; // question ids in the order this session asks them
+    private Question current;
+    private int currentIndex = 0;
+    private int score = 0;
+    private long startedAt;
+    private long shownAt;
+    private long deadline;
+    private int timeLeft = SECONDS_PER_QUESTION; // frozen once the question closes
+    private boolean awaitingAnswer;
+    private boolean timedOut;
+
+    // Asks up to DEFAULT_QUESTION_COUNT questions drawn from the whole bank
+    public QuizEngine(QuestionIndex index) {
+        this(index.all(), DEFAULT_QUESTION_COUNT, new SplittableRandom());
+    }
+
+    // Asks questionCount questions drawn from selection; random is owned by this session
+    public QuizEngine(QuestionIndex.Selection selection, int questionCount, SplittableRandom random) {
+        this.bank = selection.bank();
+        this.selection = selection;
+        this.adaptive = null;
+        this.questionCount = questionCount;
+        this.random = random;
+        restart();
+    }
+
+    // Asks questionCount questions picked one at a time to match the player's ability
+    public QuizEngine(AdaptiveSelector selector, int questionCount, SplittableRandom random) {
+        this.bank = selector.bank();
+        this.selection = null;
+        this.adaptive = selector.newSession(random);
+        this.questionCount = questionCount;
+        this.random = random;
+        restart();
+    }
+
+    // Resumes a checkpointed session drawn from selection; restart() draws afresh.
+    // Throws IllegalArgumentException if saved does not fit the bank.
+    public QuizEngine(QuestionIndex.Selection selection, SplittableRandom random, SessionCheckpoints.Saved saved) {
+        this.bank = selection.bank();
+        this.selection = selection;
+        this.adaptive = null;
+        this.questionCount = saved.getQuestionCount();
+        this.random = random;
+        resume(saved);
+    }
+
+    // Resumes a checkpointed adaptive session with its asked questions and ability
+    public QuizEngine(AdaptiveSelector selector, SplittableRandom random, SessionCheckpoints.Saved saved) {
+        this.bank = selector.bank();
+        this.selection = null;
+        this.adaptive = selector.newSession(random);
+        this.questionCount = saved.getQuestionCount();
+        this.random = random;
+        resume(saved);
+    }
+
+    private void resume(SessionCheckpoints.Saved saved) {
+        int[] ids = saved.questionIds();
+        if (saved.getBankFingerprint() != bank.fingerprint() || (adaptive == null && ids.length != questionCount)) {
+            throw new IllegalArgumentException("Checkpoint is for a different question bank");
+        }
+        order = Arrays.copyOf(ids, questionCount);
+        for (int id : ids) {
+            if (id < 0 || id >= bank.size()) throw new IllegalArgumentException("Bad question id " + id);
+        }
+        currentIndex = saved.getPosition();
+        score = saved.getScore();
+        if (adaptive != null) {
+            adaptive.resume(order, ids.length, saved.getAbility());
+            if (!isFinished() && currentIndex == ids.length) order[currentIndex] = adaptive.next();
+        }
+        startedAt = System.nanoTime();
+        resetQuestion();
+        if (awaitingAnswer) {
+            long left = TimeUnit.MILLISECONDS.toNanos(Math.max(0, saved.getTimeLeftMillis()));
+            deadline = shownAt + Math.min(left, SECONDS_PER_QUESTION * SECOND);
+        }
+    }
+
+    // Draws a fresh set of questions in O(questionCount), independent of bank size
+    public void restart() {
+        currentIndex = 0;
+        score = 0;
+        if (adaptive == null) {
+            order = selection.draw(questionCount, random);
+        } else {
+            adaptive.reset();
+            order = new int[Math.min(questionCount, adaptive.remaining())];
+            if (order.length > 0) order[0] = adaptive.next();
+        }
+        startedAt = System.nanoTime();
+        resetQuestion();
+    }
+
+    private void resetQuestion() {
+        timeLeft = SECONDS_PER_QUESTION;
+        timedOut = false;
+        shownAt = System.nanoTime();
+        deadline = shownAt + SECONDS_PER_QUESTION * SECOND;
+        awaitingAnswer = !isFinished();
+        // Decode the question once when it is drawn; banks may be lazily backed
+        current = awaitingAnswer ? bank.get(order[currentIndex]) : null;
+    }
+
+    public Question getCurrentQuestion() {
+        return current;
+    }
+
+    public int getCurrentIndex() {
+        return currentIndex;
+    }
+
+    public int getQuestionCount() {
+        return order.length;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public long getDeadline() {
+        return deadline;
+    }
+
+    // Whole seconds left on the current question, rounded up
+    public int getTimeLeft() {
+        if (!isAwaitingAnswer()) return timeLeft;
+        long remaining = deadline - System.nanoTime();
+        return (int) ((remaining + SECOND - 1) / SECOND);
+    }
+
+    // Checkpoint state: the ids in asking order, of which the first pickedCount()
+    // are chosen (all of them unless adaptive), and the nanoseconds left on the
+    // open question or -1 once it is closed. Unlike isAwaitingAnswer() this
+    // never expires the question.
+    int[] order() {
+        return order;
+    }
+
+    int pickedCount() {
+        return adaptive == null ? order.length : Math.min(order.length, currentIndex + 1);
+    }
+
+    long openNanosLeft() {
+        return awaitingAnswer ? Math.max(0, deadline - System.nanoTime()) : -1;
+    }
+
+    long bankFingerprint() {
+        return bank.fingerprint();
+    }
+
+    public boolean isAdaptive() {
+        return adaptive != null;
+    }
+
+    // Current ability estimate on the logit scale (0 = average); NaN unless adaptive
+    public double getAbility() {
+        return adaptive == null ? Double.NaN : adaptive.getAbility();
+    }
+
+    public boolean isFinished() {
+        return currentIndex >= order.length;
+    }
+
+    // True while the current question is open: not yet answered and not timed out
+    public boolean isAwaitingAnswer() {
+        if (awaitingAnswer && System.nanoTime() - deadline >= 0) {
+            expire();
+        }
+        return awaitingAnswer;
+    }
+
+    // Scores the chosen option; returns whether it was the correct one
+    public boolean answer(int optionIndex) {
+        if (!isAwaitingAnswer()) {
+            throw new IllegalStateException("Question " + currentIndex + " is not awaiting an answer");
+        }
+        long now = System.nanoTime();
+        timeLeft = (int) ((deadline - now + SECOND - 1) / SECOND);
+        awaitingAnswer = false;
+        boolean correct = optionIndex == current.getCorrectIndex();
+        if (correct) score++;
+        if (adaptive != null) adaptive.update(correct);
+        QuizMetrics.shared().answered(current, optionIndex, correct, now - shownAt);
+        return correct;
+    }
+
+    // Closes the current question if its deadline has passed; returns true only
+    // for the call that actually timed it out
+    public boolean expire() {
+        if (!awaitingAnswer || System.nanoTime() - deadline < 0) return false;
+        awaitingAnswer = false;
+        timedOut = true;
+        timeLeft = 0;
+        if (adaptive != null) adaptive.update(false);
+        QuizMetrics.shared().timedOut(current);
+        return true;
+    }
+
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+
+    // Moves on to the next question; returns false once the quiz is over
+    public boolean next() {
+        if (!isFinished()) {
+            currentIndex++;
+            if (isFinished()) {
+                QuizMetrics.shared().sessionCompleted(score, order.length, System.nanoTime() - startedAt);
+            } else if (adaptive != null) {
+                order[currentIndex] = adaptive.next();
+            }
+        }
+        resetQuestion();
+        return !isFinished();
+    }
+}
@@ -0,0 +1,147 @@
+package quiz;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+// JDK Flight Recorder events for the quiz, under the "Quiz" category. They
+// cost nothing unless a recording is running, e.g.
+//
+//   java -XX:StartFlightRecording=filename=quiz.jfr -jar quiz.jar
+//   jfr print --categories Quiz quiz.jfr
+//
+// Stack traces are off: every event fires from a known place.
+public final class QuizEvents {
+
+    private QuizEvents() {
+    }
+
+    // Spans the work of putting a question in front of the player (a UI
+    // transition, or building the server's question response)
+    @Name("quiz.QuestionShown")
+    @Label("Question Shown")
+    @Category("Quiz")
+    @StackTrace(false)
+    public static final class QuestionShown extends Event {
+        @Label("Question Id")
+        int questionId;
+
+        @Label("Category")
+        String category;
+
+        @Label("Position")
+        @Description("Zero-based position of the question in its session")
+        int position;
+    }
+
+    @Name("quiz.AnswerSubmitted")
+    @Label("Answer Submitted")
+    @Category("Quiz")
+    @StackTrace(false)
+    public static final class AnswerSubmitted extends Event {
+        @Label("Question Id")
+        int questionId;
+
+        @Label("Category")
+        String category;
+
+        @Label("Option")
+        int option;
+
+        @Label("Correct")
+        boolean correct;
+
+        @Label("Response Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long responseTime;
+    }
+
+    @Name("quiz.QuestionTimedOut")
+    @Label("Question Timed Out")
+    @Category("Quiz")
+    @StackTrace(false)
+    public static final class QuestionTimedOut extends Event {
+        @Label("Question Id")
+        int questionId;
+
+        @Label("Category")
+        String category;
+    }
+
+    @Name("quiz.SessionCompleted")
+    @Label("Session Completed")
+    @Category("Quiz")
+    @StackTrace(false)
+    public static final class SessionCompleted extends Event {
+        @Label("Score")
+        int score;
+
+        @Label("Questions")
+        int total;
+
+        @Label("Session Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long sessionTime;
+    }
+
+    // Desktop startup, committed once the first question is on screen. Times
+    // are measured from JVM start, so they include class loading and CDS effects
+    @Name("quiz.Startup")
+    @Label("Startup")
+    @Category("Quiz")
+    @StackTrace(false)
+    public static final class Startup extends Event {
+        @Label("Time To Frame")
+        @Timespan(Timespan.MILLISECONDS)
+        long timeToFrame;
+
+        @Label("Time To First Question")
+        @Timespan(Timespan.MILLISECONDS)
+        long timeToFirstQuestion;
+
+        @Label("Load Time")
+        @Description("Loading and indexing the question bank on the background thread")
+        @Timespan(Timespan.NANOSECONDS)
+        long loadTime;
+
+        @Label("Questions")
+        int questions;
+    }
+
+    // One LiveQuizServer round, committed when it has been scored
+    @Name("quiz.LiveRound")
+    @Label("Live Round")
+    @Category("Quiz")
+    @StackTrace(false)
+    public static final class LiveRound extends Event {
+        @Label("Round")
+        int round;
+
+        @Label("Question Id")
+        int questionId;
+
+        @Label("Players")
+        @Description("Connected players the question was sent to")
+        int players;
+
+        @Label("Answered")
+        @Description("Answers that arrived inside their player's window")
+        int answered;
+
+        @Label("Correct")
+        int correct;
+
+        @Label("Fan-Out Time")
+        @Description("From opening the round until the question was written to the last socket")
+        @Timespan(Timespan.NANOSECONDS)
+        long fanOutTime;
+
+        @Label("Scoring Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long scoringTime;
+    }
+}
@@ -0,0 +1,521 @@
+package quiz;
+
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import java.awt.*;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class QuizGameUI extends JFrame {
+    private QuizEngine engine;
+    private WrappedLabel questionLabel;
+    private OptionButton[] optionButtons;
+    private JLabel timerLabel;
+    private JLabel scoreLabel;
+    private QuizScheduler.Countdown countdown;
+    private QuizScheduler.Delay advanceDelay;
+    private ProgressStrip progressStrip;
+    private BackgroundPanel backgroundPanel;
+    private JButton exitButton;
+    private FeedbackOverlay feedbackOverlay;
+    private Leaderboard leaderboard;
+    private SessionCheckpoints checkpoints; // null if the file could not be opened
+    private SessionCheckpoints.Slot checkpoint;
+    private QuestionBankWatcher bank;
+    private QuestionIndex engineIndex; // the snapshot engine draws from
+    private long frameShownAt;
+
+    public QuizGameUI() {
+        // The bank loads on a background thread while the widgets are built, and
+        // the frame is shown straight away with a loading message
+        QuestionLoader loader = new QuestionLoader();
+        loader.execute();
+        CompletableFuture.supplyAsync(this::openLeaderboard)
+            .thenAccept(board -> SwingUtilities.invokeLater(() -> leaderboard = board));
+
+        setTitle("Quiz Challenge");
+        setSize(800, 600);
+        setDefaultCloseOperation(EXIT_ON_CLOSE);
+        setLocationRelativeTo(null);
+
+        // Create background panel
+        backgroundPanel = new BackgroundPanel();
+        backgroundPanel.setLayout(new BorderLayout(10, 10));
+        setContentPane(backgroundPanel);
+        feedbackOverlay = new FeedbackOverlay();
+        setGlassPane(feedbackOverlay);
+
+        // Header with timer, score, and exit button
+        JPanel headerPanel = new JPanel(new BorderLayout());
+        headerPanel.setBackground(Theme.HEADER); // Semi-transparent
+        headerPanel.setBorder(Theme.HEADER_BORDER);
+
+        scoreLabel = new JLabel("Score: 0");
+        scoreLabel.setFont(Theme.SCORE_FONT);
+        scoreLabel.setForeground(Color.WHITE);
+        headerPanel.add(scoreLabel, BorderLayout.WEST);
+
+        // Exit button
+        exitButton = new JButton("Exit");
+        exitButton.setFont(Theme.SMALL_BUTTON_FONT);
+        exitButton.setBackground(Theme.WRONG); // Red background
+        exitButton.setForeground(Color.WHITE);
+        exitButton.setFocusPainted(false);
+        exitButton.setBorder(new EmptyBorder(5, 15, 5, 15));
+        exitButton.addActionListener(e -> System.exit(0));
+        headerPanel.add(exitButton, BorderLayout.CENTER);
+
+        timerLabel = new JLabel("15s", SwingConstants.CENTER);
+        timerLabel.setFont(Theme.TITLE_FONT);
+        timerLabel.setForeground(Color.WHITE);
+        timerLabel.setBorder(new EmptyBorder(0, 0, 0, 20));
+        headerPanel.add(timerLabel, BorderLayout.EAST);
+
+        add(headerPanel, BorderLayout.NORTH);
+
+        // Question area with dark background and white text
+        questionLabel = new WrappedLabel("Loading questions…");
+        questionLabel.setFont(Theme.QUESTION_FONT);
+        questionLabel.setOpaque(true);
+        questionLabel.setBackground(Theme.QUESTION_BACKGROUND); // Dark background
+        questionLabel.setForeground(Color.WHITE); // White text
+        questionLabel.setBorder(Theme.QUESTION_BORDER);
+        add(questionLabel, BorderLayout.CENTER);
+
+        // Options panel
+        JPanel optionsPanel = new JPanel(new GridLayout(2, 2, 15, 15));
+        optionsPanel.setBorder(new EmptyBorder(20, 30, 20, 30));
+        optionsPanel.setBackground(Theme.TRANSPARENT);
+
+        optionButtons = new OptionButton[4];
+        for (int i = 0; i < 4; i++) {
+            OptionButton btn = new OptionButton();
+            btn.setFont(Theme.BODY_FONT);
+            btn.setFocusPainted(false);
+            btn.setBorder(Theme.OPTION_BORDER);
+            btn.setBackground(Theme.OPTION_BACKGROUND); // Semi-transparent
+            btn.setOpaque(true);
+            btn.setVisible(false); // until the first question arrives
+            final int option = i;
+            btn.addActionListener(e -> handleAnswer(option));
+            optionButtons[i] = btn;
+            optionsPanel.add(btn);
+        }
+
+        // Progress strip below the options
+        progressStrip = new ProgressStrip();
+        progressStrip.setBorder(new EmptyBorder(0, 10, 10, 10));
+        JPanel southPanel = new JPanel(new BorderLayout());
+        southPanel.setOpaque(false);
+        southPanel.add(optionsPanel, BorderLayout.CENTER);
+        southPanel.add(progressStrip, BorderLayout.SOUTH);
+        add(southPanel, BorderLayout.SOUTH);
+
+        // Both handles are reused for every question; scheduler callbacks hop to the EDT
+        countdown = QuizScheduler.shared().newCountdown(new QuizScheduler.CountdownListener() {
+            @Override
+            public void onTick(int secondsLeft) {
+                SwingUtilities.invokeLater(() -> {
+                    updateTimerLabel(secondsLeft);
+                    saveCheckpoint(); // keeps the time left current for a resume
+                });
+            }
+
+            @Override
+            public void onTimeout() {
+                SwingUtilities.invokeLater(() -> {
+                    if (engine.expire()) {
+                        updateTimerLabel(0);
+                        handleTimeout();
+                    }
+                });
+            }
+        });
+        advanceDelay = QuizScheduler.shared().newDelay(() -> SwingUtilities.invokeLater(this::nextQuestion));
+
+        setVisible(true);
+        frameShownAt = System.nanoTime();
+    }
+
+    // Loads and indexes the bank, opens the answer log against it, then draws
+    // from the bank off the EDT; the first question is shown as soon as the
+    // engine is ready
+    private final class QuestionLoader extends SwingWorker<QuizEngine, Void> {
+        private long loadTime;
+        private int questions;
+
+        @Override
+        protected QuizEngine doInBackground() {
+            long start = System.nanoTime();
+            QuestionIndex index = new QuestionIndex(loadQuestions());
+            openAnswerLog(index.bank()); // before newEngine, so adaptive ratings see the history
+            openCheckpoints();
+            QuizEngine loaded = newEngine(index);
+            loadTime = System.nanoTime() - start;
+            questions = index.bank().size();
+            bank = watchQuestions(index);
+            engineIndex = index;
+            return loaded;
+        }
+
+        @Override
+        protected void done() {
+            try {
+                engine = get();
+            } catch (InterruptedException | ExecutionException e) {
+                e.printStackTrace();
+                questionLabel.setText("Could not load questions");
+                return;
+            }
+            scoreLabel.setText("Score: " + engine.getScore()); // non-zero for a resumed game
+            progressStrip.reset(engine.getQuestionCount(), engine.getCurrentIndex());
+            showQuestion();
+            // Queued behind the repaint showQuestion just requested
+            SwingUtilities.invokeLater(() -> firstQuestionShown(loadTime, questions));
+        }
+    }
+
+    // Reports time-to-first-question from JVM start on stderr and as a
+    // quiz.Startup JFR event; -Dquiz.exitAfterFirstQuestion=true then exits,
+    // for scripted timing and AppCDS training runs
+    private void firstQuestionShown(long loadTime, int questions) {
+        long now = System.nanoTime();
+        long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+        long toFrame = uptime - TimeUnit.NANOSECONDS.toMillis(now - frameShownAt);
+        System.err.printf("Startup: frame %d ms, first question %d ms, bank loaded in %d ms (%d questions)%n",
+            toFrame, uptime, TimeUnit.NANOSECONDS.toMillis(loadTime), questions);
+        QuizEvents.Startup event = new QuizEvents.Startup();
+        if (event.shouldCommit()) {
+            event.timeToFrame = toFrame;
+            event.timeToFirstQuestion = uptime;
+            event.loadTime = loadTime;
+            event.questions = questions;
+            event.commit();
+        }
+        if (Boolean.getBoolean("quiz.exitAfterFirstQuestion")) System.exit(0);
+    }
+
+    // Resumes the game checkpointed by the last run if it was left unfinished in
+    // the same mode; -Dquiz.adaptive=true matches each question to the player's
+    // running ability
+    private QuizEngine newEngine(QuestionIndex index) {
+        boolean adaptive = Boolean.getBoolean("quiz.adaptive");
+        String label = adaptive ? "adaptive" : "";
+        AdaptiveSelector selector = adaptive
+            ? AdaptiveSelector.build(index.all(), QuizMetrics.shared().answers().stats()) : null;
+        QuizEngine engine = null;
+        if (checkpoints != null) {
+            for (SessionCheckpoints.Saved saved : checkpoints.saved()) {
+                if (engine == null && !saved.isFinished() && saved.getLabel().equals(label)) {
+                    try {
+                        engine = adaptive ? new QuizEngine(selector, new SplittableRandom(), saved)
+                                          : new QuizEngine(index.all(), new SplittableRandom(), saved);
+                        checkpoint = checkpoints.reclaim(saved);
+                        continue;
+                    } catch (IllegalArgumentException e) {
+                        System.err.println("Not resuming checkpointed game: " + e.getMessage());
+                    }
+                }
+                checkpoints.discard(saved);
+            }
+            if (engine == null) checkpoint = checkpoints.claim(1, label);
+        }
+        if (engine != null) return engine;
+        return adaptive ? new QuizEngine(selector, QuizEngine.DEFAULT_QUESTION_COUNT, new SplittableRandom())
+                        : new QuizEngine(index);
+    }
+
+    // Picks up edits to the -Dquiz.bank file for the next game, restarting the
+    // answer statistics when the questions change
+    private QuestionBankWatcher watchQuestions(QuestionIndex index) {
+        try {
+            QuestionBankWatcher watcher = QuestionBankWatcher.watch(QuestionBankLoader.defaultBankFile(), index);
+            watcher.onReload(next -> QuizMetrics.shared().useBank(next.bank()));
+            return watcher;
+        } catch (IOException e) {
+            System.err.println("Not watching the question bank: " + e);
+            return QuestionBankWatcher.fixed(index);
+        }
+    }
+
+    private QuestionBank loadQuestions() {
+        try {
+            return QuestionBankLoader.loadDefault();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load questions", e);
+        }
+    }
+
+    private Leaderboard openLeaderboard() {
+        try {
+            Leaderboard board = Leaderboard.open(Leaderboard.defaultDirectory());
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    board.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }));
+            return board;
+        } catch (IOException e) {
+            e.printStackTrace(); // play on without a leaderboard
+            return null;
+        }
+    }
+
+    private void openAnswerLog(QuestionBank bank) {
+        try {
+            QuizMetrics.shared().logAnswersTo(AnswerLog.open(AnswerLog.defaultFile(), bank));
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    QuizMetrics.shared().answers().close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }));
+        } catch (IOException e) {
+            e.printStackTrace(); // answers still feed the in-memory statistics
+        }
+    }
+
+    // -Dquiz.checkpoints=<file> (default session.ckpt) holds the game in progress
+    private void openCheckpoints() {
+        try {
+            checkpoints = SessionCheckpoints.open(SessionCheckpoints.defaultFile("session.ckpt"),
+                                                  1, QuizEngine.DEFAULT_QUESTION_COUNT);
+            SessionCheckpoints file = checkpoints;
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    file.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }));
+        } catch (IOException e) {
+            e.printStackTrace(); // play on without resume
+        }
+    }
+
+    private void saveCheckpoint() {
+        if (checkpoint != null) checkpoint.save(engine);
+    }
+
+    private void showQuestion() {
+        saveCheckpoint();
+        if (engine.isFinished()) {
+            showResult();
+            return;
+        }
+        QuizEvents.QuestionShown shown = new QuizEvents.QuestionShown();
+        shown.begin();
+        Question q = engine.getCurrentQuestion();
+        questionLabel.setText("Q" + (engine.getCurrentIndex() + 1) + ": " + q.getQuestionText());
+        int optionCount = q.getOptionCount();
+        for (int i = 0; i < 4; i++) {
+            // Banks loaded from disk may carry fewer than four options
+            optionButtons[i].setVisible(i < optionCount);
+            if (i >= optionCount) continue;
+            optionButtons[i].setOptionText(q.getOption(i));
+            optionButtons[i].setEnabled(true);
+            optionButtons[i].setBackground(Theme.OPTION_BACKGROUND);
+            optionButtons[i].setForeground(Color.BLACK);
+        }
+        resetTimer();
+        progressStrip.setCurrent(engine.getCurrentIndex());
+        if (shown.shouldCommit()) {
+            shown.questionId = q.getId();
+            shown.category = q.getCategory();
+            shown.position = engine.getCurrentIndex();
+            shown.commit();
+        }
+    }
+
+    private void updateTimerLabel(int timeLeft) {
+        timerLabel.setText(timeLeft + "s");
+        timerLabel.setForeground(timeLeft <= 5 ? Color.RED : Color.WHITE);
+    }
+
+    private void resetTimer() {
+        updateTimerLabel(engine.getTimeLeft());
+        countdown.start(engine.getDeadline());
+    }
+
+    private void handleAnswer(int option) {
+        if (!engine.isAwaitingAnswer()) return; // Prevent answering after timeout
+        countdown.cancel();
+        int correctIndex = engine.getCurrentQuestion().getCorrectIndex();
+        boolean correct = engine.answer(option);
+        saveCheckpoint();
+        progressStrip.setAnswered(engine.getCurrentIndex(), correct);
+        // Visual feedback
+        for (int i = 0; i < optionButtons.length; i++) {
+            OptionButton btn = optionButtons[i];
+            btn.setEnabled(false);
+            if (i == correctIndex) {
+                btn.setBackground(Theme.CORRECT_FILL); // Green for correct
+                btn.setForeground(Color.WHITE);
+            } else if (i == option && !correct) {
+                btn.setBackground(Theme.WRONG_FILL); // Red for incorrect
+                btn.setForeground(Color.WHITE);
+            }
+        }
+        scoreLabel.setText("Score: " + engine.getScore());
+        showFeedback(correct);
+    }
+
+    private void handleTimeout() {
+        saveCheckpoint();
+        progressStrip.setAnswered(engine.getCurrentIndex(), false);
+        int correctIndex = engine.getCurrentQuestion().getCorrectIndex();
+        // Highlight correct answer
+        for (int i = 0; i < optionButtons.length; i++) {
+            OptionButton btn = optionButtons[i];
+            btn.setEnabled(false);
+            if (i == correctIndex) {
+                btn.setBackground(Theme.CORRECT_FILL);
+                btn.setForeground(Color.WHITE);
+            } else {
+                btn.setBackground(Theme.WRONG_FILL);
+                btn.setForeground(Color.WHITE);
+            }
+        }
+        showFeedback(false);
+    }
+
+    private void showFeedback(boolean isCorrect) {
+        feedbackOverlay.showFeedback(isCorrect, engine.isTimedOut());
+        // Hide the overlay and move to next question after a second
+        advanceDelay.start(1, TimeUnit.SECONDS);
+    }
+
+    private void nextQuestion() {
+        feedbackOverlay.hideFeedback();
+        engine.next();
+        showQuestion();
+    }
+
+    private void showResult() {
+        countdown.cancel();
+        JDialog resultDialog = new JDialog(this, "Quiz Completed", true);
+        resultDialog.setSize(400, 350); // Increased height to accommodate buttons better
+        resultDialog.setLocationRelativeTo(this);
+        resultDialog.setUndecorated(true);
+        resultDialog.getRootPane().setBorder(BorderFactory.createLineBorder(Theme.ACCENT, 3));
+
+        JPanel contentPanel = new JPanel();
+        contentPanel.setLayout(new BoxLayout(contentPanel, BoxLayout.Y_AXIS));
+        contentPanel.setBackground(Theme.CARD); // Semi-transparent
+        contentPanel.setBorder(new EmptyBorder(30, 30, 30, 30));
+
+        JLabel titleLabel = new JLabel("Quiz Completed!", SwingConstants.CENTER);
+        titleLabel.setFont(Theme.TITLE_FONT);
+        titleLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+        titleLabel.setForeground(Theme.ACCENT);
+
+        int score = engine.getScore();
+        int total = engine.getQuestionCount();
+        JLabel scoreLabel = new JLabel("Your Score: " + score + "/" + total, SwingConstants.CENTER);
+        scoreLabel.setFont(Theme.QUESTION_FONT);
+        scoreLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+        scoreLabel.setBorder(new EmptyBorder(20, 0, 20, 0));
+
+        JLabel rankLabel = new JLabel(" ", SwingConstants.CENTER);
+        rankLabel.setFont(Theme.BODY_FONT);
+        rankLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+        rankLabel.setForeground(Theme.ACCENT);
+        if (leaderboard != null) {
+            leaderboard.record(System.getProperty("user.name"), score, total)
+                .whenComplete((rank, error) -> SwingUtilities.invokeLater(() -> rankLabel.setText(
+                    error != null ? "Leaderboard unavailable"
+                                  : "Leaderboard rank: #" + rank + " of " + leaderboard.players())));
+        }
+
+        int percentage = (int) Math.round((double) score / total * 100);
+        JProgressBar progressBar = new JProgressBar(0, 100);
+        progressBar.setValue(percentage);
+        progressBar.setStringPainted(true);
+        progressBar.setFont(Theme.BODY_FONT);
+        progressBar.setForeground(Theme.ACCENT);
+        progressBar.setAlignmentX(Component.CENTER_ALIGNMENT);
+        progressBar.setBorder(new EmptyBorder(0, 0, 20, 0));
+
+        JPanel buttonPanel = new JPanel();
+        buttonPanel.setBackground(Theme.TRANSPARENT);
+        buttonPanel.setAlignmentX(Component.CENTER_ALIGNMENT);
+        buttonPanel.setBorder(new EmptyBorder(20, 0, 0, 0));
+
+        JButton restartButton = new JButton("Play Again");
+        restartButton.setFont(Theme.BUTTON_FONT);
+        restartButton.setBackground(Color.WHITE); // White background
+        restartButton.setForeground(Theme.ACCENT); // Blue text
+        restartButton.setFocusPainted(false);
+        restartButton.setBorder(BorderFactory.createCompoundBorder(
+            BorderFactory.createLineBorder(Theme.ACCENT),
+            BorderFactory.createEmptyBorder(10, 20, 10, 20)
+        ));
+        restartButton.addActionListener(e -> {
+            resultDialog.dispose();
+            restartQuiz();
+        });
+
+        JButton exitButton = new JButton("Exit");
+        exitButton.setFont(Theme.BUTTON_FONT);
+        exitButton.setBackground(Color.WHITE); // White background
+        exitButton.setForeground(Theme.WRONG); // Red text
+        exitButton.setFocusPainted(false);
+        exitButton.setBorder(BorderFactory.createCompoundBorder(
+            BorderFactory.createLineBorder(Theme.WRONG),
+            BorderFactory.createEmptyBorder(10, 20, 10, 20)
+        ));
+        exitButton.addActionListener(e -> System.exit(0));
+
+        buttonPanel.add(restartButton);
+        buttonPanel.add(Box.createHorizontalStrut(20));
+        buttonPanel.add(exitButton);
+
+        contentPanel.add(titleLabel);
+        contentPanel.add(Box.createVerticalStrut(20));
+        contentPanel.add(scoreLabel);
+        contentPanel.add(rankLabel);
+        contentPanel.add(Box.createVerticalStrut(20));
+        contentPanel.add(progressBar);
+        contentPanel.add(Box.createVerticalStrut(30));
+        contentPanel.add(buttonPanel);
+
+        resultDialog.add(contentPanel);
+        resultDialog.setVisible(true);
+    }
+
+    // Starts the next game on the reloaded bank if it changed since this one began
+    private void restartQuiz() {
+        QuestionIndex index = bank.current();
+        if (index != engineIndex) {
+            engineIndex = index;
+            engine = Boolean.getBoolean("quiz.adaptive")
+                ? new QuizEngine(AdaptiveSelector.build(index.all(), QuizMetrics.shared().answers().stats()),
+                                 QuizEngine.DEFAULT_QUESTION_COUNT, new SplittableRandom())
+                : new QuizEngine(index);
+        } else {
+            engine.restart();
+        }
+        scoreLabel.setText("Score: 0");
+        progressStrip.reset(engine.getQuestionCount(), 0);
+        showQuestion();
+    }
+
+    public static void main(String[] args) {
+        SwingUtilities.invokeLater(() -> {
+            try {
+                UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+            new QuizGameUI();
+        });
+    }
+}
@@ -0,0 +1,155 @@
+package quiz;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import jdk.jfr.EventType;
+
+// Process-wide answer instrumentation, fed by every QuizEngine: a response-time
+// LatencyHistogram plus correct and timeout counts per category, and the
+// matching QuizEvents for Flight Recorder. Every answer and timeout is also
+// offered to an AnswerLog, whose writer thread keeps the per-question
+// statistics (and, when file-backed, the event log) off the answer path.
+// The log belongs to one question bank: after useBank() switches to a bank
+// with different content, answers from games still on the old bank no longer
+// reach the per-question statistics, whose ids would mean other questions.
+//
+// The answer path never blocks: a map lookup for the category, a few atomic
+// adds and one ring-buffer offer. It is allocation-free unless Flight
+// Recorder is recording answer or timeout events, since the event objects
+// are only created once their type is enabled. snapshotJson() renders
+// everything on demand.
+public final class QuizMetrics {
+    private static final QuizMetrics SHARED = new QuizMetrics();
+    private static final EventType ANSWER_EVENTS = EventType.getEventType(QuizEvents.AnswerSubmitted.class);
+    private static final EventType TIMEOUT_EVENTS = EventType.getEventType(QuizEvents.QuestionTimedOut.class);
+
+    private final ConcurrentHashMap<String, Stats> categories = new ConcurrentHashMap<>();
+    private final LongAdder sessionsCompleted = new LongAdder();
+    private volatile AnswerLog answers = AnswerLog.inMemory(null);
+
+    public static QuizMetrics shared() {
+        return SHARED;
+    }
+
+    private static final class Stats {
+        final LatencyHistogram responseTimes = new LatencyHistogram();
+        final LongAdder correct = new LongAdder();
+        final LongAdder timeouts = new LongAdder();
+
+        void appendJson(StringBuilder json) {
+            LatencyHistogram.Snapshot snapshot = responseTimes.snapshot();
+            json.append("{\"answered\":").append(snapshot.getCount())
+                .append(",\"correct\":").append(correct.sum())
+                .append(",\"timeouts\":").append(timeouts.sum())
+                .append(",\"responseMillis\":");
+            snapshot.appendJson(json);
+            json.append('}');
+        }
+    }
+
+    public void answered(Question question, int option, boolean correct, long responseNanos) {
+        String category = question.getCategory();
+        long millis = TimeUnit.NANOSECONDS.toMillis(responseNanos);
+        Stats byCategory = category(category);
+        byCategory.responseTimes.record(millis);
+        if (correct) byCategory.correct.increment();
+        AnswerLog log = answers;
+        if (log.covers(question.bank())) log.offer(question.getId(), option, correct, responseNanos);
+        if (!ANSWER_EVENTS.isEnabled()) return;
+        QuizEvents.AnswerSubmitted event = new QuizEvents.AnswerSubmitted();
+        if (event.shouldCommit()) {
+            event.questionId = question.getId();
+            event.category = category;
+            event.option = option;
+            event.correct = correct;
+            event.responseTime = responseNanos;
+            event.commit();
+        }
+    }
+
+    public void timedOut(Question question) {
+        String category = question.getCategory();
+        category(category).timeouts.increment();
+        AnswerLog log = answers;
+        if (log.covers(question.bank())) {
+            log.offer(question.getId(), -1, false, QuizEngine.SECONDS_PER_QUESTION * 1_000_000_000L);
+        }
+        if (!TIMEOUT_EVENTS.isEnabled()) return;
+        QuizEvents.QuestionTimedOut event = new QuizEvents.QuestionTimedOut();
+        if (event.shouldCommit()) {
+            event.questionId = question.getId();
+            event.category = category;
+            event.commit();
+        }
+    }
+
+    public void sessionCompleted(int score, int total, long sessionNanos) {
+        sessionsCompleted.increment();
+        QuizEvents.SessionCompleted event = new QuizEvents.SessionCompleted();
+        if (event.shouldCommit()) {
+            event.score = score;
+            event.total = total;
+            event.sessionTime = sessionNanos;
+            event.commit();
+        }
+    }
+
+    // Routes answer events to log from now on, closing the previous log.
+    // Statistics gathered by the previous log are not carried over.
+    public synchronized void logAnswersTo(AnswerLog log) throws IOException {
+        AnswerLog previous = answers;
+        answers = log;
+        previous.close();
+    }
+
+    // Switches the per-question statistics to bank, unless the current log is
+    // already for a bank with the same content. A file-backed log is closed and
+    // reopened on the same path, which sets the old bank's log aside and picks
+    // up bank's own if it has one; if that fails the statistics carry on in
+    // memory.
+    public synchronized void useBank(QuestionBank bank) {
+        AnswerLog previous = answers;
+        if (previous.bank() != null && previous.covers(bank)) return;
+        AnswerLog next = null;
+        try {
+            previous.close(); // first: the new log renames the same file
+            if (previous.path() != null) next = AnswerLog.open(previous.path(), bank);
+        } catch (IOException e) {
+            System.err.println("Answer statistics kept in memory only: " + e);
+        }
+        answers = next != null ? next : AnswerLog.inMemory(bank);
+    }
+
+    public AnswerLog answers() {
+        return answers;
+    }
+
+    private Stats category(String name) {
+        Stats stats = categories.get(name);
+        return stats != null ? stats : categories.computeIfAbsent(name, n -> new Stats());
+    }
+
+    // {"sessionsCompleted":n,
+    //  "categories":{"Java":{"answered","correct","timeouts","responseMillis":{...}}, ...},
+    //  "droppedEvents":n, "questions":{"17":{"answered","correct","timeouts","difficulty","pickRates",
+    //  "responseMillis"}, ...}}   (only questions that have been played)
+    public String snapshotJson() {
+        StringBuilder json = new StringBuilder(4096);
+        json.append("{\"sessionsCompleted\":").append(sessionsCompleted.sum()).append(",\"categories\":{");
+        int n = 0;
+        for (Map.Entry<String, Stats> e : new TreeMap<>(categories).entrySet()) {
+            if (n++ > 0) json.append(',');
+            QuizServer.quote(json, e.getKey());
+            json.append(':');
+            e.getValue().appendJson(json);
+        }
+        AnswerLog log = answers;
+        json.append("},\"droppedEvents\":").append(log.dropped()).append(",\"questions\":");
+        log.stats().appendJson(json);
+        return json.append('}').toString();
+    }
+}
@@ -0,0 +1,256 @@
+package quiz;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+// One hashed timing wheel shared by every quiz session in the JVM. Countdowns
+// and delays are long-lived handles that are re-armed per question, so a
+// question costs no Timer, thread or task allocation. Each wheel tick touches
+// only the entries due in one bucket, whatever the number of sessions.
+//
+// Deadlines are absolute System.nanoTime() values; a countdown reports the
+// seconds actually remaining rather than counting how often it was woken.
+// Callbacks run on the wheel thread and must be short: UI code should hand
+// them to the EDT with SwingUtilities.invokeLater.
+public final class QuizScheduler {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long NONE = Long.MIN_VALUE;
+
+    public interface CountdownListener {
+        void onTick(int secondsLeft);
+
+        void onTimeout();
+    }
+
+    private static final class Holder {
+        static final QuizScheduler SHARED = new QuizScheduler(TimeUnit.MILLISECONDS.toNanos(50), 256);
+    }
+
+    public static QuizScheduler shared() {
+        return Holder.SHARED;
+    }
+
+    private final long tickNanos;
+    private final Task[] wheel;
+    private final int mask;
+    private final long startNanos;
+    private final AtomicReference<Task> pending = new AtomicReference<>();
+    private final Thread worker;
+    private long tick; // owned by the worker thread
+
+    public QuizScheduler(long tickNanos, int wheelSize) {
+        if (Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Wheel size must be a power of two: " + wheelSize);
+        }
+        this.tickNanos = tickNanos;
+        this.wheel = new Task[wheelSize];
+        this.mask = wheelSize - 1;
+        this.startNanos = System.nanoTime();
+        this.worker = new Thread(this::run, "quiz-scheduler");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    public Countdown newCountdown(CountdownListener listener) {
+        return new Countdown(this, listener);
+    }
+
+    public Delay newDelay(Runnable action) {
+        return new Delay(this, action);
+    }
+
+    // Base for wheel entries. Any thread may arm or cancel; only the worker
+    // links entries into buckets, via the lock-free pending stack.
+    abstract static class Task {
+        private static final AtomicIntegerFieldUpdater<Task> GENERATION =
+            AtomicIntegerFieldUpdater.newUpdater(Task.class, "generation");
+        private static final AtomicIntegerFieldUpdater<Task> QUEUED =
+            AtomicIntegerFieldUpdater.newUpdater(Task.class, "queued");
+
+        final QuizScheduler scheduler;
+        volatile long deadline = NONE;
+        private volatile int generation;
+        private volatile int queued;
+        private Task pendingNext;
+
+        // Worker-owned wheel state
+        private Task prev;
+        private Task next;
+        private int bucket = -1;
+        private long rounds;
+        private int linkedGeneration;
+
+        Task(QuizScheduler scheduler) {
+            this.scheduler = scheduler;
+        }
+
+        final void arm(long deadlineNanos) {
+            deadline = deadlineNanos;
+            GENERATION.incrementAndGet(this);
+            scheduler.submit(this);
+        }
+
+        public final void cancel() {
+            deadline = NONE;
+            GENERATION.incrementAndGet(this);
+            scheduler.submit(this);
+        }
+
+        // First wake-up time after being armed
+        abstract long firstFire(long deadline);
+
+        // Runs on the worker; returns the next wake-up time, or NONE when done
+        abstract long fire(long now, long deadline);
+    }
+
+    // Per-question countdown: ticks once per remaining second, then times out
+    public static final class Countdown extends Task {
+        private final CountdownListener listener;
+
+        private Countdown(QuizScheduler scheduler, CountdownListener listener) {
+            super(scheduler);
+            this.listener = listener;
+        }
+
+        public void start(long deadlineNanos) {
+            arm(deadlineNanos);
+        }
+
+        @Override
+        long firstFire(long deadline) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) return deadline;
+            long seconds = (remaining + SECOND - 1) / SECOND;
+            return deadline - (seconds - 1) * SECOND;
+        }
+
+        @Override
+        long fire(long now, long deadline) {
+            long remaining = deadline - now;
+            if (remaining <= 0) {
+                listener.onTimeout();
+                return NONE;
+            }
+            long seconds = (remaining + SECOND - 1) / SECOND;
+            listener.onTick((int) seconds);
+            return deadline - (seconds - 1) * SECOND;
+        }
+    }
+
+    // Re-armable one-shot delay
+    public static final class Delay extends Task {
+        private final Runnable action;
+
+        private Delay(QuizScheduler scheduler, Runnable action) {
+            super(scheduler);
+            this.action = action;
+        }
+
+        public void start(long delay, TimeUnit unit) {
+            arm(System.nanoTime() + unit.toNanos(delay));
+        }
+
+        @Override
+        long firstFire(long deadline) {
+            return deadline;
+        }
+
+        @Override
+        long fire(long now, long deadline) {
+            action.run();
+            return NONE;
+        }
+    }
+
+    private void submit(Task task) {
+        if (!Task.QUEUED.compareAndSet(task, 0, 1)) return; // already waiting to be applied
+        Task head;
+        do {
+            head = pending.get();
+            task.pendingNext = head;
+        } while (!pending.compareAndSet(head, task));
+        LockSupport.unpark(worker);
+    }
+
+    private void run() {
+        while (true) {
+            drainPending();
+            long sleep = startNanos + tick * tickNanos - System.nanoTime();
+            if (sleep > 0) {
+                LockSupport.parkNanos(this, sleep);
+                continue;
+            }
+            expireBucket((int) (tick & mask));
+            tick++;
+        }
+    }
+
+    private void drainPending() {
+        Task task = pending.getAndSet(null);
+        while (task != null) {
+            Task next = task.pendingNext;
+            task.pendingNext = null;
+            Task.QUEUED.set(task, 0); // later arms re-queue the task
+            unlink(task);
+            int generation = task.generation;
+            long deadline = task.deadline;
+            if (deadline != NONE) {
+                task.linkedGeneration = generation;
+                link(task, task.firstFire(deadline));
+            }
+            task = next;
+        }
+    }
+
+    private void expireBucket(int index) {
+        Task task = wheel[index];
+        while (task != null) {
+            Task next = task.next;
+            if (task.rounds > 0) {
+                task.rounds--;
+            } else {
+                unlink(task);
+                long deadline = task.deadline;
+                if (task.generation == task.linkedGeneration && deadline != NONE) {
+                    long now = System.nanoTime();
+                    long again;
+                    try {
+                        again = task.fire(now, deadline);
+                    } catch (RuntimeException e) {
+                        Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
+                        again = NONE;
+                    }
+                    if (again != NONE) link(task, again);
+                }
+            }
+            task = next;
+        }
+    }
+
+    private void link(Task task, long fireAt) {
+        long due = Math.floorDiv(fireAt - startNanos + tickNanos - 1, tickNanos);
+        if (due < tick) due = tick;
+        task.rounds = (due - tick) / wheel.length;
+        int index = (int) (due & mask);
+        task.bucket = index;
+        task.prev = null;
+        task.next = wheel[index];
+        if (wheel[index] != null) wheel[index].prev = task;
+        wheel[index] = task;
+    }
+
+    private void unlink(Task task) {
+        if (task.bucket < 0) return;
+        if (task.prev != null) {
+            task.prev.next = task.next;
+        } else {
+            wheel[task.bucket] = task.next;
+        }
+        if (task.next != null) task.next.prev = task.prev;
+        task.prev = null;
+        task.next = null;
+        task.bucket = -1;
+    }
+}
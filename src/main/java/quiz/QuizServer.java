@@ -0,0 +1,609 @@
+package quiz;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Multi-session quiz over HTTP/JSON, built on the JDK's HttpServer.
+//
+//   POST   /sessions                 start a session        -> {"session": id, "total": n}
+//   GET    /sessions/{id}/question   current question       -> {"index", "total", "question", "options", "timeLeft", "score"}
+//   POST   /sessions/{id}/answer     body or query option=N -> {"correct", "timedOut", "correctIndex", "score", "finished"}
+//   GET    /sessions/{id}/result     final or running score -> {"score", "total", "finished"}
+//   DELETE /sessions/{id}            end a session
+//   GET    /leaderboard?top=N        best N players         -> [{"player", "score", "total", "rank"}, ...]
+//   GET    /leaderboard/{player}     one player's standing  -> {"player", "score", "total", "rank", "players"}
+//   GET    /metrics                  response-time histograms and counts per category and question
+//   GET    /metrics/questions/{id}   one question's live stats -> {"answered", "difficulty", "pickRates", ...}
+//
+// POST /sessions takes optional query parameters: player=name (finished
+// sessions are recorded on the leaderboard under it), categories=Java,UI/UX,
+// difficulty=EASY,MEDIUM, count=N (default 30) and adaptive=true. Questions are
+// drawn in O(count) from the precomputed QuestionIndex; adaptive sessions pick
+// each question in O(log n) from an AdaptiveSelector shared per selection and
+// report their "ability" with each answer and result. A selection's selector
+// is rebuilt from the live answer statistics once REBUILD_ANSWERS more answers
+// have been logged; one request rebuilds it while the others keep using the
+// old one, and sessions keep the selector they started with.
+//
+// The bank file (-Dquiz.bank) is watched: an edited or re-imported bank is
+// loaded in the background and new sessions start on it, while sessions in
+// progress finish on the snapshot they started with.
+//
+// Each session is a QuizEngine in a ConcurrentHashMap, locked only by requests
+// for that same session. Deadlines are enforced lazily by the engine, and idle
+// sessions are evicted by a re-armed QuizScheduler delay, so no thread is tied
+// to a session between requests.
+//
+// Every state change is checkpointed into a slot of a memory-mapped
+// SessionCheckpoints file (-Dquiz.checkpoints, default sessions.ckpt) labelled
+// with the session's creation query. A restarted server resumes unfinished
+// sessions under their old ids, with their questions, score and time left.
+//
+// Usage: java -cp quiz.jar quiz.QuizServer [port]   (default 8080)
+public final class QuizServer {
+    private static final long IDLE_MINUTES = 10;
+    private static final int CHECKPOINT_SLOTS = 16_384;
+    private static final int CHECKPOINT_QUESTIONS = 128;
+    private static final long REBUILD_ANSWERS = 1_000;
+
+    private final QuestionBankWatcher bank;
+    private final Leaderboard leaderboard;
+    private final SessionCheckpoints checkpoints; // null to run without
+    private final HttpServer http;
+    private final ExecutorService executor;
+    private final ConcurrentHashMap<Long, Session> sessions = new ConcurrentHashMap<>(1 << 16);
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final ConcurrentHashMap<String, AdaptiveRatings> adaptiveSelectors = new ConcurrentHashMap<>();
+
+    private final class Session {
+        final long id;
+        final String player;
+        final QuizEngine engine;
+        final QuizScheduler.Delay idle;
+        final SessionCheckpoints.Slot checkpoint; // null if not checkpointed
+        boolean recorded;
+
+        Session(long id, String player, QuizEngine engine, SessionCheckpoints.Slot checkpoint) {
+            this.id = id;
+            this.player = player;
+            this.engine = engine;
+            this.checkpoint = checkpoint;
+            this.idle = QuizScheduler.shared().newDelay(this::end);
+            touch();
+        }
+
+        void touch() {
+            idle.start(IDLE_MINUTES, TimeUnit.MINUTES);
+        }
+
+        // Called under the session lock after every state change
+        void changed() {
+            if (engine.isFinished()) {
+                if (checkpoint != null) checkpoint.release();
+                if (!recorded) {
+                    recorded = true;
+                    leaderboard.record(player, engine.getScore(), engine.getQuestionCount());
+                }
+            } else if (checkpoint != null) {
+                checkpoint.save(engine);
+            }
+        }
+
+        // Evicted or deleted: forget it, here and in the checkpoint file
+        void end() {
+            sessions.remove(id, this);
+            idle.cancel();
+            synchronized (this) {
+                if (checkpoint != null) checkpoint.release();
+            }
+        }
+    }
+
+    // One selection's AdaptiveSelector. Built outside the map's locks: the
+    // first request for a bank snapshot builds it, and a rebuild after
+    // REBUILD_ANSWERS answers is left to whichever request claims it first.
+    private static final class AdaptiveRatings {
+        private final AtomicBoolean rebuilding = new AtomicBoolean();
+        private volatile Built built;
+
+        AdaptiveSelector get(QuestionIndex.Selection selection) {
+            AnswerLog answers = QuizMetrics.shared().answers();
+            Built current = built;
+            if (current != null && current.selector.bank() == selection.bank()) {
+                boolean stale = current.answers != answers || answers.written() - current.written >= REBUILD_ANSWERS;
+                if (!stale || !rebuilding.compareAndSet(false, true)) return current.selector;
+                try {
+                    return rebuild(selection, answers);
+                } finally {
+                    rebuilding.set(false);
+                }
+            }
+            return rebuild(selection, answers); // nothing usable yet; concurrent first requests may each build
+        }
+
+        private AdaptiveSelector rebuild(QuestionIndex.Selection selection, AnswerLog answers) {
+            long written = answers.written();
+            AdaptiveSelector selector = AdaptiveSelector.build(selection, answers.stats());
+            built = new Built(selector, answers, written);
+            return selector;
+        }
+    }
+
+    private static final class Built {
+        final AdaptiveSelector selector;
+        final AnswerLog answers; // whose statistics rated it
+        final long written;      // answers.written() when they were read
+
+        Built(AdaptiveSelector selector, AnswerLog answers, long written) {
+            this.selector = selector;
+            this.answers = answers;
+            this.written = written;
+        }
+    }
+
+    public QuizServer(QuestionIndex index, Leaderboard leaderboard, InetSocketAddress address) throws IOException {
+        this(QuestionBankWatcher.fixed(index), leaderboard, null, address);
+    }
+
+    // Starts sessions on bank's current snapshot; resumes the unfinished
+    // sessions saved in checkpoints, then checkpoints new ones there
+    public QuizServer(QuestionBankWatcher bank, Leaderboard leaderboard, SessionCheckpoints checkpoints,
+                      InetSocketAddress address) throws IOException {
+        this.bank = bank;
+        this.leaderboard = leaderboard;
+        this.checkpoints = checkpoints;
+        if (checkpoints != null) resumeSessions();
+        this.http = HttpServer.create(address, 4096);
+        this.executor = newRequestExecutor();
+        http.setExecutor(executor);
+        http.createContext("/sessions", guarded(this::handle));
+        http.createContext("/leaderboard", guarded(this::handleLeaderboard));
+        http.createContext("/metrics", guarded(this::handleMetrics));
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        Leaderboard leaderboard = Leaderboard.open(Leaderboard.defaultDirectory());
+        QuestionIndex index = new QuestionIndex(QuestionBankLoader.loadDefault());
+        QuizMetrics.shared().logAnswersTo(AnswerLog.open(AnswerLog.defaultFile(), index.bank()));
+        QuestionBankWatcher bank = QuestionBankWatcher.watch(QuestionBankLoader.defaultBankFile(), index);
+        bank.onReload(next -> QuizMetrics.shared().useBank(next.bank()));
+        SessionCheckpoints checkpoints = SessionCheckpoints.open(SessionCheckpoints.defaultFile("sessions.ckpt"),
+                                                                 CHECKPOINT_SLOTS, CHECKPOINT_QUESTIONS);
+        QuizServer server = new QuizServer(bank, leaderboard, checkpoints, new InetSocketAddress(port));
+        if (server.sessionCount() > 0) System.out.println("Resumed " + server.sessionCount() + " sessions");
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            try {
+                bank.close();
+                leaderboard.close();
+                QuizMetrics.shared().answers().close();
+                checkpoints.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }));
+        server.start();
+        System.out.println("Quiz server listening on http://localhost:" + server.port() + "/sessions");
+    }
+
+    // One virtual thread per request where the runtime has them (JDK 21+);
+    // otherwise a cached pool of daemon platform threads.
+    static ExecutorService newRequestExecutor() {
+        try {
+            Method virtual = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) virtual.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "quiz-http");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    public void start() {
+        http.start();
+    }
+
+    public void stop() {
+        http.stop(0);
+        executor.shutdownNow();
+    }
+
+    public int port() {
+        return http.getAddress().getPort();
+    }
+
+    public int sessionCount() {
+        return sessions.size();
+    }
+
+    // Every endpoint answers an unexpected exception with a 500 (unless a
+    // response is already under way) and closes the exchange
+    private static HttpHandler guarded(HttpHandler handler) {
+        return exchange -> {
+            try {
+                handler.handle(exchange);
+            } catch (RuntimeException e) {
+                if (exchange.getResponseCode() == -1) send(exchange, 500, error(String.valueOf(e.getMessage())));
+            } finally {
+                exchange.close();
+            }
+        };
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String[] parts = exchange.getRequestURI().getPath().split("/");
+        // parts: "", "sessions", [id], [action]
+        String method = exchange.getRequestMethod();
+        if (parts.length == 2) {
+            if (!method.equals("POST")) {
+                send(exchange, 405, error("Use POST to start a session"));
+                return;
+            }
+            createSession(exchange);
+            return;
+        }
+        Session session = parts.length <= 4 ? lookup(parts[2]) : null;
+        if (session == null) {
+            send(exchange, 404, error("No such session"));
+            return;
+        }
+        String action = parts.length == 4 ? parts[3] : "";
+        switch (method + " " + action) {
+            case "GET question":
+                question(exchange, session);
+                break;
+            case "POST answer":
+                answer(exchange, session);
+                break;
+            case "GET result":
+                result(exchange, session);
+                break;
+            case "DELETE ":
+                session.end();
+                send(exchange, 204, null);
+                break;
+            default:
+                send(exchange, 404, error("Unknown endpoint"));
+        }
+    }
+
+    private void handleLeaderboard(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestMethod().equals("GET")) {
+            send(exchange, 405, error("Use GET"));
+            return;
+        }
+        String[] parts = exchange.getRequestURI().getPath().split("/");
+        StringBuilder json = new StringBuilder(512);
+        if (parts.length == 2) {
+            String top = param(exchange.getRequestURI(), "top");
+            int n = 10;
+            try {
+                if (top != null) n = Math.max(0, Math.min(1000, Integer.parseInt(top)));
+            } catch (NumberFormatException e) {
+                send(exchange, 400, error("top must be a number"));
+                return;
+            }
+            json.append('[');
+            int rank = 0;
+            for (Leaderboard.Entry e : leaderboard.top(n)) {
+                if (rank++ > 0) json.append(',');
+                json.append("{\"player\":");
+                quote(json, e.getPlayer());
+                json.append(",\"score\":").append(e.getScore()).append(",\"total\":").append(e.getTotal())
+                    .append(",\"rank\":").append(leaderboard.rank(e.getPlayer())).append('}');
+            }
+            send(exchange, 200, json.append(']').toString());
+        } else if (parts.length == 3) {
+            String player = URLDecoder.decode(parts[2], StandardCharsets.UTF_8);
+            Leaderboard.Entry e = leaderboard.best(player);
+            if (e == null) {
+                send(exchange, 404, error("No scores for " + player));
+                return;
+            }
+            json.append("{\"player\":");
+            quote(json, player);
+            json.append(",\"score\":").append(e.getScore()).append(",\"total\":").append(e.getTotal())
+                .append(",\"rank\":").append(leaderboard.rank(player))
+                .append(",\"players\":").append(leaderboard.players()).append('}');
+            send(exchange, 200, json.toString());
+        } else {
+            send(exchange, 404, error("Unknown endpoint"));
+        }
+    }
+
+    private void handleMetrics(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestMethod().equals("GET")) {
+            send(exchange, 405, error("Use GET"));
+            return;
+        }
+        String[] parts = exchange.getRequestURI().getPath().split("/");
+        // parts: "", "metrics", ["questions", id]
+        if (parts.length == 2) {
+            send(exchange, 200, QuizMetrics.shared().snapshotJson());
+            return;
+        }
+        AnswerStats.QuestionStats stats = null;
+        if (parts.length == 4 && parts[2].equals("questions")) {
+            try {
+                stats = QuizMetrics.shared().answers().stats().get(Integer.parseInt(parts[3]));
+            } catch (NumberFormatException e) {
+                // fall through to 404
+            }
+        }
+        if (stats == null) {
+            send(exchange, 404, error("No statistics for " + exchange.getRequestURI().getPath()));
+            return;
+        }
+        StringBuilder json = new StringBuilder(256);
+        stats.appendJson(json);
+        send(exchange, 200, json.toString());
+    }
+
+    private Session lookup(String id) {
+        try {
+            return sessions.get(Long.parseLong(id));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private void createSession(HttpExchange exchange) throws IOException {
+        URI uri = exchange.getRequestURI();
+        String player;
+        QuizEngine engine;
+        try {
+            player = player(uri);
+            engine = newEngine(uri, null);
+        } catch (IllegalArgumentException e) {
+            send(exchange, 400, error(e.getMessage()));
+            return;
+        }
+        long id = nextId.getAndIncrement(); // only once the request is known to be good
+        SessionCheckpoints.Slot checkpoint = null;
+        if (checkpoints != null && engine.getQuestionCount() <= checkpoints.maxQuestions()) {
+            String query = uri.getRawQuery();
+            checkpoint = checkpoints.claim(id, query == null ? "" : query); // null when full: run unsaved
+        }
+        Session session = new Session(id, player, engine, checkpoint);
+        synchronized (session) {
+            session.changed();
+        }
+        sessions.put(id, session);
+        send(exchange, 201, "{\"session\":" + id + ",\"total\":" + session.engine.getQuestionCount() + "}");
+    }
+
+    // Rebuilds each saved session from its creation query; sessions that are
+    // finished, or no longer fit the bank, are dropped from the file
+    private void resumeSessions() {
+        long maxId = 0;
+        for (SessionCheckpoints.Saved saved : checkpoints.saved()) {
+            try {
+                if (saved.isFinished()) throw new IllegalArgumentException("finished");
+                URI uri = URI.create("/sessions?" + saved.getLabel());
+                QuizEngine engine = newEngine(uri, saved);
+                long id = saved.getSessionId();
+                sessions.put(id, new Session(id, player(uri), engine, checkpoints.reclaim(saved)));
+                maxId = Math.max(maxId, id);
+            } catch (IllegalArgumentException e) {
+                checkpoints.discard(saved);
+            }
+        }
+        nextId.set(maxId + 1);
+    }
+
+    private static String player(URI uri) {
+        String player = param(uri, "player");
+        player = player == null || player.isEmpty() ? "anonymous" : URLDecoder.decode(player, StandardCharsets.UTF_8);
+        if (player.length() > 64) throw new IllegalArgumentException("player name longer than 64 characters");
+        return player;
+    }
+
+    // A new session for the query's selection, or the saved one resumed
+    private QuizEngine newEngine(URI uri, SessionCheckpoints.Saved saved) {
+        String categories = param(uri, "categories");
+        String difficulty = param(uri, "difficulty");
+        String count = param(uri, "count");
+        List<String> names = new ArrayList<>();
+        if (categories != null) {
+            for (String name : URLDecoder.decode(categories, StandardCharsets.UTF_8).split(",")) {
+                if (!name.trim().isEmpty()) names.add(name.trim());
+            }
+        }
+        EnumSet<Difficulty> difficulties = EnumSet.allOf(Difficulty.class);
+        if (difficulty != null) {
+            difficulties.clear();
+            for (String d : difficulty.split(",")) {
+                difficulties.add(Difficulty.parse(d)); // IllegalArgumentException -> 400
+            }
+        }
+        int n = QuizEngine.DEFAULT_QUESTION_COUNT;
+        if (count != null) {
+            try {
+                n = Integer.parseInt(count);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("count must be a number");
+            }
+            if (n < 1 || n > 10_000) throw new IllegalArgumentException("count must be between 1 and 10000");
+        }
+        QuestionIndex.Selection selection = bank.current().select(names, difficulties);
+        if (selection.size() == 0) throw new IllegalArgumentException("No questions match that selection");
+        if ("true".equals(param(uri, "adaptive"))) {
+            String key = new TreeSet<>(names) + "/" + difficulties;
+            AdaptiveSelector selector = adaptiveSelectors.computeIfAbsent(key, k -> new AdaptiveRatings()).get(selection);
+            return saved == null ? new QuizEngine(selector, n, new SplittableRandom())
+                                 : new QuizEngine(selector, new SplittableRandom(), saved);
+        }
+        return saved == null ? new QuizEngine(selection, n, new SplittableRandom())
+                             : new QuizEngine(selection, new SplittableRandom(), saved);
+    }
+
+    private void question(HttpExchange exchange, Session session) throws IOException {
+        StringBuilder json = new StringBuilder(256);
+        synchronized (session) {
+            session.touch();
+            QuizEngine engine = session.engine;
+            // An unanswered question that ran out of time counts as wrong; move on
+            if (!engine.isFinished() && !engine.isAwaitingAnswer()) {
+                engine.next();
+                session.changed();
+            }
+            if (engine.isFinished()) {
+                json.append("{\"finished\":true,\"score\":").append(engine.getScore())
+                    .append(",\"total\":").append(engine.getQuestionCount()).append('}');
+            } else {
+                QuizEvents.QuestionShown shown = new QuizEvents.QuestionShown();
+                shown.begin();
+                Question q = engine.getCurrentQuestion();
+                json.append("{\"index\":").append(engine.getCurrentIndex())
+                    .append(",\"total\":").append(engine.getQuestionCount())
+                    .append(",\"question\":");
+                quote(json, q.getQuestionText());
+                json.append(",\"options\":[");
+                for (int i = 0; i < q.getOptionCount(); i++) {
+                    if (i > 0) json.append(',');
+                    quote(json, q.getOption(i));
+                }
+                json.append("],\"timeLeft\":").append(engine.getTimeLeft())
+                    .append(",\"score\":").append(engine.getScore()).append('}');
+                if (shown.shouldCommit()) {
+                    shown.questionId = q.getId();
+                    shown.category = q.getCategory();
+                    shown.position = engine.getCurrentIndex();
+                    shown.commit();
+                }
+            }
+        }
+        send(exchange, 200, json.toString());
+    }
+
+    private void answer(HttpExchange exchange, Session session) throws IOException {
+        int option = parseOption(exchange);
+        String json;
+        synchronized (session) {
+            session.touch();
+            QuizEngine engine = session.engine;
+            if (engine.isFinished()) {
+                send(exchange, 409, error("Quiz is finished"));
+                return;
+            }
+            Question q = engine.getCurrentQuestion();
+            if (option < 0 || option >= q.getOptionCount()) {
+                send(exchange, 400, error("option must be between 0 and " + (q.getOptionCount() - 1)));
+                return;
+            }
+            boolean timedOut = !engine.isAwaitingAnswer();
+            boolean correct = !timedOut && engine.answer(option);
+            int correctIndex = q.getCorrectIndex();
+            engine.next();
+            session.changed();
+            json = "{\"correct\":" + correct + ",\"timedOut\":" + timedOut
+                   + ",\"correctIndex\":" + correctIndex + ",\"score\":" + engine.getScore()
+                   + ",\"finished\":" + engine.isFinished() + ability(engine) + "}";
+        }
+        send(exchange, 200, json);
+    }
+
+    private void result(HttpExchange exchange, Session session) throws IOException {
+        String json;
+        synchronized (session) {
+            session.touch();
+            QuizEngine engine = session.engine;
+            json = "{\"score\":" + engine.getScore() + ",\"total\":" + engine.getQuestionCount()
+                   + ",\"finished\":" + engine.isFinished() + ability(engine) + "}";
+        }
+        send(exchange, 200, json);
+    }
+
+    private static String ability(QuizEngine engine) {
+        return engine.isAdaptive() ? ",\"ability\":" + Math.round(engine.getAbility() * 100) / 100.0 : "";
+    }
+
+    // Accepts option=N in the query string or the body, or a bare N as the body
+    private static int parseOption(HttpExchange exchange) throws IOException {
+        String value = param(exchange.getRequestURI(), "option");
+        if (value == null) {
+            try (InputStream in = exchange.getRequestBody()) {
+                String body = new String(in.readNBytes(256), StandardCharsets.UTF_8).trim();
+                value = body.startsWith("option=") ? body.substring(7) : body;
+            }
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static String param(URI uri, String name) {
+        String query = uri.getRawQuery();
+        if (query == null) return null;
+        for (String pair : query.split("&")) {
+            if (pair.startsWith(name + "=")) return pair.substring(name.length() + 1);
+        }
+        return null;
+    }
+
+    private static String error(String message) {
+        StringBuilder json = new StringBuilder("{\"error\":");
+        quote(json, message);
+        return json.append('}').toString();
+    }
+
+    static void quote(StringBuilder json, String s) {
+        json.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"': json.append("\\\""); break;
+                case '\\': json.append("\\\\"); break;
+                case '\n': json.append("\\n"); break;
+                case '\r': json.append("\\r"); break;
+                case '\t': json.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        json.append('"');
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        if (json == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
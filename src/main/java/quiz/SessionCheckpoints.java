@@ -0,0 +1,326 @@
+package quiz;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Crash-safe snapshots of running quiz sessions in a preallocated,
+// memory-mapped file of fixed-size slots, one slot per live session.
+//
+// A slot holds the session id, an opaque label (what the owner needs to
+// rebuild the session, e.g. the player and selection), the question ids in
+// asking order, and two small state records written alternately: position of
+// the next unanswered question, score, time left on it and the adaptive
+// ability. A record's sequence number is zeroed before and set after its
+// fields, so a process that dies mid-write leaves the other record intact.
+// Question ids are written once, or as adaptive sessions pick them, before the
+// record that counts them; a save is a few dozen bytes of plain stores into
+// the page cache and allocates nothing.
+//
+// Each slot records the fingerprint of the bank its question ids refer to, so
+// a session is never resumed against a bank that was edited or replaced in
+// the meantime, even one of the same size.
+//
+// Nothing is forced to disk except on close(), so the file survives a killed
+// or crashed process but may lose the last seconds of saves on power loss.
+//
+//   file:   int magic 'QZCK', int version, int slots, int maxQuestions, zero padding to 64 bytes
+//   slot:   long sessionId (0 = free), long bankFingerprint, int questionCount, short labelLength,
+//           byte[LABEL_BYTES] label, record A, record B, int[maxQuestions] questionIds
+//   record: int sequence (0 = being written), int position, int score, int timeLeftMillis,
+//           int idCount, int reserved, double ability
+public final class SessionCheckpoints implements Closeable {
+    private static final int MAGIC = 0x515A434B; // "QZCK"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    static final int LABEL_BYTES = 512;
+    private static final int RECORD_SIZE = 32;
+    private static final int SESSION_ID = 0;
+    private static final int BANK_FINGERPRINT = 8;
+    private static final int QUESTION_COUNT = 16;
+    private static final int LABEL_LENGTH = 20;
+    private static final int LABEL = 22;
+    private static final int RECORDS = LABEL + LABEL_BYTES;
+    private static final int IDS = RECORDS + 2 * RECORD_SIZE;
+    private static final int SEQUENCE = 0;
+    private static final int POSITION = 4;
+    private static final int SCORE = 8;
+    private static final int TIME_LEFT = 12;
+    private static final int ID_COUNT = 16;
+    private static final int ABILITY = 24;
+
+    private final FileChannel file;
+    private final MappedByteBuffer map;
+    private final int slots;
+    private final int maxQuestions;
+    private final int slotSize;
+    private final int[] free; // stack of free slot numbers, guarded by this
+    private int freeCount;
+    private final List<Saved> saved;
+
+    private SessionCheckpoints(Path path, int slots, int maxQuestions) throws IOException {
+        file = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        boolean fresh = file.size() < HEADER_SIZE;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        if (fresh) {
+            header.putInt(MAGIC).putInt(VERSION).putInt(slots).putInt(maxQuestions).clear();
+            file.write(header, 0);
+        } else {
+            file.read(header, 0);
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new IOException("Not a checkpoint file: " + path);
+            }
+            // An existing file keeps its own geometry
+            slots = header.getInt(8);
+            maxQuestions = header.getInt(12);
+        }
+        this.slots = slots;
+        this.maxQuestions = maxQuestions;
+        slotSize = (IDS + 4 * maxQuestions + 63) & ~63;
+        long size = HEADER_SIZE + (long) slots * slotSize;
+        if (slots <= 0 || maxQuestions <= 0 || size > Integer.MAX_VALUE) {
+            throw new IOException("Bad checkpoint geometry in " + path + ": " + slots + " x " + maxQuestions);
+        }
+        map = file.map(FileChannel.MapMode.READ_WRITE, 0, size); // grows a fresh file, sparse
+        free = new int[slots];
+        List<Saved> live = new ArrayList<>();
+        for (int slot = slots - 1; slot >= 0; slot--) {
+            Saved s = read(slot);
+            if (s != null) {
+                live.add(s);
+            } else {
+                map.putLong(base(slot) + SESSION_ID, 0);
+                free[freeCount++] = slot;
+            }
+        }
+        Collections.reverse(live);
+        saved = Collections.unmodifiableList(live);
+    }
+
+    // Maps path, creating it with the given geometry if needed; sessions left
+    // in it by the previous run are available from saved()
+    public static SessionCheckpoints open(Path path, int slots, int maxQuestions) throws IOException {
+        return new SessionCheckpoints(path, slots, maxQuestions);
+    }
+
+    // -Dquiz.checkpoints=<file> if set, else name; each program passes its own
+    public static Path defaultFile(String name) {
+        return Paths.get(System.getProperty("quiz.checkpoints", name));
+    }
+
+    // Sessions found at open time; each must be reclaim()ed or discard()ed
+    public List<Saved> saved() {
+        return saved;
+    }
+
+    public int maxQuestions() {
+        return maxQuestions;
+    }
+
+    // Takes a free slot for a new session, or returns null if none is free or
+    // the label does not fit. The first save() writes the question ids.
+    public synchronized Slot claim(long sessionId, String label) {
+        byte[] bytes = label.getBytes(StandardCharsets.UTF_8);
+        if (freeCount == 0 || bytes.length > LABEL_BYTES || sessionId == 0) return null;
+        int slot = free[--freeCount];
+        int base = base(slot);
+        map.putLong(base + SESSION_ID, 0);
+        map.putInt(base + RECORDS + SEQUENCE, 0);
+        map.putInt(base + RECORDS + RECORD_SIZE + SEQUENCE, 0);
+        map.putShort(base + LABEL_LENGTH, (short) bytes.length);
+        map.put(base + LABEL, bytes);
+        map.putLong(base + SESSION_ID, sessionId);
+        return new Slot(slot, 0);
+    }
+
+    // Continues checkpointing a saved session in the slot it came from
+    public Slot reclaim(Saved s) {
+        return new Slot(s.slot, s.sequence);
+    }
+
+    public void discard(Saved s) {
+        release(s.slot);
+    }
+
+    private synchronized void release(int slot) {
+        map.putLong(base(slot) + SESSION_ID, 0);
+        free[freeCount++] = slot;
+    }
+
+    @Override
+    public void close() throws IOException {
+        map.force();
+        file.close();
+    }
+
+    private int base(int slot) {
+        return HEADER_SIZE + slot * slotSize;
+    }
+
+    // The newer complete record of a slot, or null for a free or unsaved slot
+    private Saved read(int slot) {
+        int base = base(slot);
+        long sessionId = map.getLong(base + SESSION_ID);
+        if (sessionId == 0) return null;
+        int a = base + RECORDS;
+        int b = a + RECORD_SIZE;
+        int record = Integer.compareUnsigned(map.getInt(a + SEQUENCE), map.getInt(b + SEQUENCE)) >= 0 ? a : b;
+        int sequence = map.getInt(record + SEQUENCE);
+        int questionCount = map.getInt(base + QUESTION_COUNT);
+        int idCount = map.getInt(record + ID_COUNT);
+        int position = map.getInt(record + POSITION);
+        int labelLength = map.getShort(base + LABEL_LENGTH);
+        if (sequence == 0 || questionCount <= 0 || questionCount > maxQuestions || idCount <= 0
+            || idCount > questionCount || position < 0 || position > Math.min(questionCount, idCount + 1)
+            || labelLength < 0 || labelLength > LABEL_BYTES) {
+            return null;
+        }
+        byte[] label = new byte[labelLength];
+        map.get(base + LABEL, label);
+        int[] ids = new int[idCount];
+        for (int i = 0; i < idCount; i++) ids[i] = map.getInt(base + IDS + 4 * i);
+        return new Saved(slot, sequence, sessionId, new String(label, StandardCharsets.UTF_8),
+                         map.getLong(base + BANK_FINGERPRINT), questionCount, ids, position,
+                         map.getInt(record + SCORE), map.getInt(record + TIME_LEFT), map.getDouble(record + ABILITY));
+    }
+
+    // One session's slot; save() and release() must not race with each other
+    // (the server calls them under the session lock, the UI on the EDT)
+    public final class Slot {
+        private final int slot;
+        private int sequence;
+        private int[] idsOf; // the order array whose ids are in the slot
+        private int idsWritten;
+        private boolean released;
+
+        private Slot(int slot, int sequence) {
+            this.slot = slot;
+            this.sequence = sequence;
+        }
+
+        // Snapshots engine; O(1) apart from ids not yet in the slot. Sessions
+        // longer than maxQuestions() are not saved.
+        public void save(QuizEngine engine) {
+            int[] order = engine.order();
+            if (released || order.length > maxQuestions) return;
+            int base = base(slot);
+            if (order != idsOf) { // a new session or a restart: invalidate the old state first
+                idsOf = order;
+                idsWritten = 0;
+                map.putInt(base + RECORDS + SEQUENCE, 0);
+                map.putInt(base + RECORDS + RECORD_SIZE + SEQUENCE, 0);
+                map.putLong(base + BANK_FINGERPRINT, engine.bankFingerprint());
+                map.putInt(base + QUESTION_COUNT, order.length);
+            }
+            int picked = engine.pickedCount();
+            for (; idsWritten < picked; idsWritten++) {
+                map.putInt(base + IDS + 4 * idsWritten, order[idsWritten]);
+            }
+            // Resume at the open question with its time left, or at the next one
+            long nanosLeft = engine.openNanosLeft();
+            int position = nanosLeft >= 0 ? engine.getCurrentIndex() : Math.min(order.length, engine.getCurrentIndex() + 1);
+            long millisLeft = nanosLeft >= 0 ? TimeUnit.NANOSECONDS.toMillis(nanosLeft)
+                                             : TimeUnit.SECONDS.toMillis(QuizEngine.SECONDS_PER_QUESTION);
+            if (++sequence == 0) sequence = 1;
+            int record = base + RECORDS + (sequence & 1) * RECORD_SIZE;
+            map.putInt(record + SEQUENCE, 0);
+            map.putInt(record + POSITION, position);
+            map.putInt(record + SCORE, engine.getScore());
+            map.putInt(record + TIME_LEFT, (int) millisLeft);
+            map.putInt(record + ID_COUNT, picked);
+            map.putDouble(record + ABILITY, engine.getAbility());
+            map.putInt(record + SEQUENCE, sequence);
+        }
+
+        // Frees the slot; the session is no longer restored
+        public void release() {
+            if (released) return;
+            released = true;
+            SessionCheckpoints.this.release(slot);
+        }
+    }
+
+    // A session as last checkpointed by a previous run
+    public static final class Saved {
+        private final int slot;
+        private final int sequence;
+        private final long sessionId;
+        private final String label;
+        private final long bankFingerprint;
+        private final int questionCount;
+        private final int[] questionIds;
+        private final int position;
+        private final int score;
+        private final int timeLeftMillis;
+        private final double ability;
+
+        Saved(int slot, int sequence, long sessionId, String label, long bankFingerprint, int questionCount,
+              int[] questionIds, int position, int score, int timeLeftMillis, double ability) {
+            this.slot = slot;
+            this.sequence = sequence;
+            this.sessionId = sessionId;
+            this.label = label;
+            this.bankFingerprint = bankFingerprint;
+            this.questionCount = questionCount;
+            this.questionIds = questionIds;
+            this.position = position;
+            this.score = score;
+            this.timeLeftMillis = timeLeftMillis;
+            this.ability = ability;
+        }
+
+        public long getSessionId() {
+            return sessionId;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        // QuestionBank.fingerprint() of the bank the ids refer to; a different
+        // bank cannot be resumed
+        public long getBankFingerprint() {
+            return bankFingerprint;
+        }
+
+        public int getQuestionCount() {
+            return questionCount;
+        }
+
+        // Ids in asking order; fewer than getQuestionCount() for adaptive sessions
+        int[] questionIds() {
+            return questionIds;
+        }
+
+        // Next unanswered question; getQuestionCount() once finished
+        public int getPosition() {
+            return position;
+        }
+
+        public boolean isFinished() {
+            return position >= questionCount;
+        }
+
+        public int getScore() {
+            return score;
+        }
+
+        public int getTimeLeftMillis() {
+            return timeLeftMillis;
+        }
+
+        public double getAbility() {
+            return ability;
+        }
+    }
+}
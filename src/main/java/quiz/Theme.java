@@ -0,0 +1,44 @@
+package quiz;
+
+import javax.swing.border.Border;
+import javax.swing.border.CompoundBorder;
+import javax.swing.border.EmptyBorder;
+import javax.swing.border.LineBorder;
+import java.awt.*;
+
+// Fonts, colours and borders shared by every screen. All of these are
+// immutable, so one instance serves every component and question instead of
+// allocating fresh ones on each update.
+final class Theme {
+    static final Color ACCENT = new Color(70, 130, 180);
+    static final Color HEADER = new Color(70, 130, 180, 200);
+    static final Color CORRECT = new Color(46, 204, 113);
+    static final Color WRONG = new Color(231, 76, 60);
+    static final Color CORRECT_FILL = new Color(46, 204, 113, 230);
+    static final Color WRONG_FILL = new Color(231, 76, 60, 230);
+    static final Color QUESTION_BACKGROUND = new Color(40, 40, 40);
+    static final Color OPTION_BACKGROUND = new Color(255, 255, 255, 230);
+    static final Color CARD = new Color(255, 255, 255, 240);
+    static final Color CARD_BORDER = new Color(200, 200, 200);
+    static final Color TRANSPARENT = new Color(0, 0, 0, 0);
+    static final Color PROGRESS_DONE = new Color(255, 255, 255, 230);
+    static final Color PROGRESS_CURRENT = new Color(255, 215, 0, 230);
+    static final Color PROGRESS_UPCOMING = new Color(255, 255, 255, 150);
+
+    static final Font TITLE_FONT = new Font("SansSerif", Font.BOLD, 24);
+    static final Font QUESTION_FONT = new Font("SansSerif", Font.BOLD, 20);
+    static final Font SCORE_FONT = new Font("SansSerif", Font.BOLD, 18);
+    static final Font BUTTON_FONT = new Font("SansSerif", Font.BOLD, 16);
+    static final Font BODY_FONT = new Font("SansSerif", Font.PLAIN, 16);
+    static final Font SMALL_BUTTON_FONT = new Font("SansSerif", Font.BOLD, 14);
+    static final Font ICON_FONT = new Font("SansSerif", Font.BOLD, 60);
+
+    static final Border HEADER_BORDER = new EmptyBorder(15, 20, 15, 20);
+    static final Border QUESTION_BORDER = new CompoundBorder(new LineBorder(new Color(80, 80, 80)),
+                                                             new EmptyBorder(20, 20, 20, 20));
+    static final Border OPTION_BORDER = new CompoundBorder(new LineBorder(CARD_BORDER),
+                                                           new EmptyBorder(15, 15, 15, 15));
+
+    private Theme() {
+    }
+}
@@ -0,0 +1,120 @@
+package quiz;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.font.FontRenderContext;
+import java.awt.font.LineBreakMeasurer;
+import java.awt.font.TextAttribute;
+import java.awt.font.TextLayout;
+import java.text.AttributedString;
+import java.util.Arrays;
+
+// Plain-text label that wraps at word boundaries and centres each line, both
+// horizontally and vertically, inside its insets.
+//
+// This replaces <html><div style='text-align: center'> labels: nothing is
+// parsed, and the TextLayouts from LineBreakMeasurer are kept until the text,
+// font or width changes, so repaints of the same question reuse them. Font and
+// foreground are inherited from the parent unless set, which lets the label
+// sit inside a button and follow its colours.
+class WrappedLabel extends JComponent {
+    private static final TextLayout[] NO_LINES = new TextLayout[0];
+
+    private String text = "";
+    private TextLayout[] lines;  // null when stale
+    private Font layoutFont;
+    private float layoutWidth;
+    private float textHeight;
+
+    WrappedLabel() {
+    }
+
+    WrappedLabel(String text) {
+        this.text = text;
+    }
+
+    String getText() {
+        return text;
+    }
+
+    void setText(String text) {
+        if (text == null) text = "";
+        if (text.equals(this.text)) return;
+        this.text = text;
+        lines = null;
+        revalidate();
+        repaint();
+    }
+
+    // Preferred width is the unwrapped text; height is what the current width needs
+    @Override
+    public Dimension getPreferredSize() {
+        if (isPreferredSizeSet()) return super.getPreferredSize();
+        Insets insets = getInsets();
+        Font font = getFont();
+        int width = font == null ? 0 : getFontMetrics(font).stringWidth(text);
+        layout(getWidth() > 0 ? getWidth() - insets.left - insets.right : Float.MAX_VALUE);
+        return new Dimension(width + insets.left + insets.right,
+                             (int) Math.ceil(textHeight) + insets.top + insets.bottom);
+    }
+
+    // A new width may need a different number of lines, hence a different height
+    @Override
+    public void setBounds(int x, int y, int width, int height) {
+        boolean resized = width != getWidth();
+        super.setBounds(x, y, width, height);
+        if (resized && lines != null) {
+            float before = textHeight;
+            Insets insets = getInsets();
+            layout(width - insets.left - insets.right);
+            if (textHeight != before) revalidate();
+        }
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Insets insets = getInsets();
+        if (isOpaque()) {
+            g.setColor(getBackground());
+            g.fillRect(0, 0, getWidth(), getHeight());
+        }
+        int width = getWidth() - insets.left - insets.right;
+        TextLayout[] lines = layout(width);
+        if (lines.length == 0) return;
+        Graphics2D g2d = (Graphics2D) g;
+        g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g2d.setColor(getForeground());
+        float y = insets.top + Math.max(0, (getHeight() - insets.top - insets.bottom - textHeight) / 2);
+        for (TextLayout line : lines) {
+            y += line.getAscent();
+            line.draw(g2d, insets.left + (width - line.getVisibleAdvance()) / 2, y);
+            y += line.getDescent() + line.getLeading();
+        }
+    }
+
+    private TextLayout[] layout(float width) {
+        Font font = getFont();
+        if (lines != null && font == layoutFont && width == layoutWidth) return lines;
+        layoutFont = font;
+        layoutWidth = width;
+        textHeight = 0;
+        if (text.isEmpty() || font == null) {
+            return lines = NO_LINES;
+        }
+        AttributedString attributed = new AttributedString(text);
+        attributed.addAttribute(TextAttribute.FONT, font);
+        FontRenderContext frc = getFontMetrics(font).getFontRenderContext();
+        LineBreakMeasurer measurer = new LineBreakMeasurer(attributed.getIterator(), frc);
+        TextLayout[] result = new TextLayout[4];
+        int count = 0;
+        float wrap = Math.max(1, width);
+        while (measurer.getPosition() < text.length()) {
+            TextLayout line = measurer.nextLayout(wrap);
+            if (count == result.length) result = Arrays.copyOf(result, count * 2);
+            result[count++] = line;
+            textHeight += line.getAscent() + line.getDescent() + line.getLeading();
+        }
+        textHeight -= result[count - 1].getLeading();
+        return lines = count == result.length ? result : Arrays.copyOf(result, count);
+    }
+}
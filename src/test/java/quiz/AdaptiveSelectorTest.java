@@ -0,0 +1,75 @@
+package quiz;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveSelectorTest {
+    private final QuestionStore bank = Banks.numbered("Q", 300);
+    private final AdaptiveSelector selector = AdaptiveSelector.build(new QuestionIndex(bank).all(), null);
+
+    @Test
+    void asksEveryQuestionOnceThenRunsOut() {
+        AdaptiveSelector.Session session = selector.newSession(new SplittableRandom(1));
+        Set<Integer> asked = new HashSet<>();
+        for (int i = 0; i < 300; i++) {
+            int id = session.next();
+            assertTrue(id >= 0 && id < 300);
+            assertTrue(asked.add(id), "asked " + id + " twice");
+            session.update(i % 2 == 0);
+        }
+        assertEquals(0, session.remaining());
+        assertEquals(-1, session.next());
+    }
+
+    @Test
+    void picksQuestionsNearTheAbilityEstimate() {
+        AdaptiveSelector.Session session = selector.newSession(new SplittableRandom(2));
+        assertEquals(Difficulty.MEDIUM, bank.difficulty(session.next())); // ability starts at 0
+        for (int i = 0; i < 15; i++) {
+            session.next();
+            session.update(true);
+        }
+        assertTrue(session.getAbility() > 1, "ability " + session.getAbility());
+        for (int i = 0; i < 5; i++) assertEquals(Difficulty.HARD, bank.difficulty(session.next()));
+    }
+
+    @Test
+    void resumedSessionContinuesWithoutRepeats() {
+        AdaptiveSelector.Session first = selector.newSession(new SplittableRandom(3));
+        int[] asked = new int[50];
+        for (int i = 0; i < asked.length; i++) {
+            asked[i] = first.next();
+            first.update(true);
+        }
+        AdaptiveSelector.Session resumed = selector.newSession(new SplittableRandom(4));
+        resumed.resume(asked, asked.length, first.getAbility());
+        assertEquals(first.getAbility(), resumed.getAbility());
+        assertEquals(250, resumed.remaining());
+        Set<Integer> seen = new HashSet<>();
+        for (int id : asked) seen.add(id);
+        for (int id; (id = resumed.next()) >= 0; ) assertTrue(seen.add(id), "asked " + id + " again");
+        assertEquals(300, seen.size());
+    }
+
+    @Test
+    void resumeRejectsUnknownAndRepeatedIds() {
+        QuestionIndex.Selection java = new QuestionIndex(bank).select(Collections.singleton("Java"),
+                                                                      EnumSet.allOf(Difficulty.class));
+        AdaptiveSelector.Session session = AdaptiveSelector.build(java, null).newSession(new SplittableRandom(5));
+        assertThrows(IllegalArgumentException.class, () -> session.resume(new int[] {1}, 1, 0)); // odd: UI/UX
+        assertThrows(IllegalArgumentException.class, () -> session.resume(new int[] {300}, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> session.resume(new int[] {-2}, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> session.resume(new int[] {4, 4}, 2, 0));
+        session.resume(new int[] {4, 6}, 2, 0);
+        assertEquals(148, session.remaining());
+    }
+}
@@ -0,0 +1,110 @@
+package quiz;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AnswerLogTest {
+    private static final int HEADER = 16;
+
+    @TempDir
+    Path dir;
+
+    private final QuestionStore bank = Banks.numbered("Q", 10);
+
+    @Test
+    void replaysAnswersIntoStats() throws IOException {
+        Path file = dir.resolve("answers.log");
+        writeAnswers(file);
+        try (AnswerLog log = AnswerLog.open(file, bank)) {
+            AnswerStats.QuestionStats q0 = log.stats().get(0);
+            assertEquals(2, q0.getAnswered());
+            assertEquals(1, q0.getCorrect());
+            assertEquals(1, q0.getTimeouts());
+            assertEquals(0.5, q0.getPickRate(1));
+            assertNull(log.stats().get(5));
+        }
+        assertEquals(HEADER + 5 * AnswerLog.RECORD_SIZE, Files.size(file));
+    }
+
+    @Test
+    void truncatesTornFinalRecord() throws IOException {
+        Path file = dir.resolve("answers.log");
+        writeAnswers(file);
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ch.truncate(Files.size(file) - 7);
+        }
+        try (AnswerLog log = AnswerLog.open(file, bank)) {
+            assertEquals(0, log.stats().get(0).getTimeouts());
+        }
+        assertEquals(HEADER + 4 * AnswerLog.RECORD_SIZE, Files.size(file));
+    }
+
+    @Test
+    void truncatesAtQuestionIdOutsideTheBank() throws IOException {
+        Path file = dir.resolve("answers.log");
+        writeAnswers(file);
+        // Third record (question 2): the question id follows the 8-byte time
+        long third = HEADER + 2 * AnswerLog.RECORD_SIZE;
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ch.write(ByteBuffer.allocate(4).putInt(0, 1_000_000_000), third + 8);
+        }
+        try (AnswerLog log = AnswerLog.open(file, bank)) {
+            assertEquals(1, log.stats().get(0).getAnswered()); // the bad record and all after it are gone
+            assertEquals(1, log.stats().get(1).getAnswered());
+            assertNull(log.stats().get(2));
+            assertEquals(0, log.stats().get(0).getTimeouts());
+        }
+        assertEquals(third, Files.size(file));
+    }
+
+    @Test
+    void setsTheLogAsideForAnotherBankAndPicksItUpAgain() throws IOException {
+        Path file = dir.resolve("answers.log");
+        writeAnswers(file);
+        QuestionStore other = Banks.numbered("Other", 10);
+        try (AnswerLog log = AnswerLog.open(file, other)) {
+            assertNull(log.stats().get(0));
+            log.offer(3, 0, false, 1_000_000);
+        }
+        Path aside = AnswerLog.setAsidePath(file, bank.fingerprint());
+        assertEquals(HEADER + 5 * AnswerLog.RECORD_SIZE, Files.size(aside)); // the old records survive
+        assertEquals(HEADER + AnswerLog.RECORD_SIZE, Files.size(file));
+        try (AnswerLog log = AnswerLog.open(file, bank)) {
+            assertEquals(2, log.stats().get(0).getAnswered());
+            assertNull(log.stats().get(3));
+        }
+        assertFalse(Files.exists(aside));
+        assertTrue(Files.exists(AnswerLog.setAsidePath(file, other.fingerprint())));
+    }
+
+    @Test
+    void coversOnlyBanksWithTheSameContent() throws IOException {
+        try (AnswerLog log = AnswerLog.inMemory(bank)) {
+            assertTrue(log.covers(Banks.numbered("Q", 10)));
+            assertFalse(log.covers(Banks.numbered("Q", 11)));
+            assertFalse(log.covers(Banks.numbered("R", 10)));
+        }
+    }
+
+    // Five records: answers to 0 (option 1, correct), 1 and 2 (option 0),
+    // then 0 again (option 2) and a timeout on 0
+    private void writeAnswers(Path file) throws IOException {
+        try (AnswerLog log = AnswerLog.open(file, bank)) {
+            for (int id = 0; id < 3; id++) log.offer(id, id == 0 ? 1 : 0, id == 0, 1_000_000);
+            log.offer(0, 2, false, 2_000_000);
+            log.offer(0, -1, false, 15_000_000_000L);
+        }
+    }
+}
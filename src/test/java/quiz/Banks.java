@@ -0,0 +1,18 @@
+package quiz;
+
+// Small banks built in code for the tests
+final class Banks {
+    private Banks() {
+    }
+
+    // n questions "<prefix> question i", options a/b/c with b correct, in
+    // categories "Java" and "UI/UX" by parity and difficulties cycling by id
+    static QuestionStore numbered(String prefix, int n) {
+        QuestionStore.Builder b = QuestionStore.builder();
+        for (int i = 0; i < n; i++) {
+            b.add(prefix + " question " + i, new String[] {"a", "b", "c"}, 1, i % 2 == 0 ? "Java" : "UI/UX",
+                  Difficulty.values()[i % Difficulty.values().length]);
+        }
+        return b.build();
+    }
+}
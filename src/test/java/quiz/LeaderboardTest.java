@@ -0,0 +1,124 @@
+package quiz;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LeaderboardTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void ranksBestScorePerPlayer() throws IOException {
+        try (Leaderboard board = Leaderboard.open(dir)) {
+            assertEquals(1, board.record("ann", 5, 10).join());
+            assertEquals(1, board.record("bob", 7, 10).join());
+            assertEquals(2, board.record("ann", 3, 10).join()); // not her best
+            assertEquals(1, board.record("cat", 9, 10).join());
+            List<Leaderboard.Entry> top = board.top(2);
+            assertEquals("cat", top.get(0).getPlayer());
+            assertEquals("bob", top.get(1).getPlayer());
+            assertEquals(3, board.rank("ann"));
+            assertEquals(5, board.best("ann").getScore());
+            assertEquals(-1, board.rank("dan"));
+        }
+    }
+
+    @Test
+    void recoversFromSnapshotAndLogTail() throws IOException {
+        try (Leaderboard board = Leaderboard.open(dir)) {
+            board.record("ann", 5, 10).join();
+        }
+        try (Leaderboard board = Leaderboard.open(dir)) { // snapshot covers ann
+            board.record("bob", 7, 10).join();
+        }
+        Files.delete(dir.resolve("scores.snap")); // replay the whole log instead
+        try (Leaderboard board = Leaderboard.open(dir)) {
+            assertEquals(2, board.players());
+            assertEquals(1, board.rank("bob"));
+        }
+    }
+
+    @Test
+    void truncatesTornFinalRecord() throws IOException {
+        long goodEnd = writeTwoRecordsWithoutSnapshot();
+        Path log = dir.resolve("scores.log");
+        try (FileChannel ch = FileChannel.open(log, StandardOpenOption.WRITE)) {
+            ch.truncate(Files.size(log) - 3); // crash partway through bob's record
+        }
+        assertRecoveredToAnnOnly(goodEnd);
+    }
+
+    @Test
+    void truncatesRecordWithBadChecksum() throws IOException {
+        long goodEnd = writeTwoRecordsWithoutSnapshot();
+        Path log = dir.resolve("scores.log");
+        flipByte(log, goodEnd + 8); // inside bob's name
+        assertRecoveredToAnnOnly(goodEnd);
+    }
+
+    @Test
+    void truncatesRecordWithImpossibleLength() throws IOException {
+        long goodEnd = writeTwoRecordsWithoutSnapshot();
+        try (FileChannel ch = FileChannel.open(dir.resolve("scores.log"), StandardOpenOption.WRITE)) {
+            ch.write(ByteBuffer.allocate(4).putInt(0, Integer.MAX_VALUE), goodEnd);
+        }
+        assertRecoveredToAnnOnly(goodEnd);
+    }
+
+    @Test
+    void failsRecordsAfterClose() throws IOException {
+        Leaderboard board = Leaderboard.open(dir);
+        board.close();
+        CompletionException e = assertThrows(CompletionException.class, () -> board.record("ann", 1, 1).join());
+        assertEquals(IllegalStateException.class, e.getCause().getClass());
+    }
+
+    // Returns where the second record starts
+    private long writeTwoRecordsWithoutSnapshot() throws IOException {
+        long annEnd;
+        try (Leaderboard board = Leaderboard.open(dir)) {
+            board.record("ann", 5, 10).join();
+            annEnd = Files.size(dir.resolve("scores.log"));
+            board.record("bob", 7, 10).join();
+        }
+        Files.delete(dir.resolve("scores.snap"));
+        return annEnd;
+    }
+
+    private void assertRecoveredToAnnOnly(long goodEnd) throws IOException {
+        try (Leaderboard board = Leaderboard.open(dir)) {
+            assertEquals(goodEnd, Files.size(dir.resolve("scores.log")));
+            assertEquals(1, board.players());
+            assertNull(board.best("bob"));
+            board.record("cat", 9, 10).join(); // appends cleanly after the cut
+        }
+        Files.delete(dir.resolve("scores.snap"));
+        try (Leaderboard board = Leaderboard.open(dir)) {
+            assertEquals(2, board.players());
+            assertEquals(1, board.rank("cat"));
+        }
+    }
+
+    static void flipByte(Path file, long position) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer b = ByteBuffer.allocate(1);
+            ch.read(b, position);
+            b.put(0, (byte) ~b.get(0));
+            b.rewind();
+            ch.write(b, position);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package quiz;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LiveQuizServerTest {
+    private LiveQuizServer server;
+
+    @AfterEach
+    void stop() {
+        if (server != null) server.stop();
+    }
+
+    @Test
+    void scoresTheFastestCorrectAnswers() throws IOException {
+        start(QuestionStore.builder().add("Q", new String[] {"a", "b"}, 1, "Java", Difficulty.EASY).build());
+        try (Player ann = new Player("ann"); Player bob = new Player("bob"); Player cat = new Player("cat")) {
+            server.startRound();
+            ann.await("\"type\":\"question\"");
+            bob.await("\"type\":\"question\"");
+            cat.await("\"type\":\"question\"");
+            ann.send("answer 1 1");
+            bob.send("answer 1 0");
+            assertTrue(ann.await("\"type\":\"score\"").contains("\"answered\":true,\"correct\":true,\"score\":1,\"rank\":1"));
+            assertTrue(bob.await("\"type\":\"score\"").contains("\"answered\":true,\"correct\":false,\"score\":0,\"rank\":2"));
+            assertTrue(cat.await("\"type\":\"score\"").contains("\"answered\":false,\"correct\":false,\"score\":0"));
+        }
+    }
+
+    @Test
+    void nobodyIsCorrectOnAQuestionWithoutAnAnswer() throws IOException {
+        start(QuestionStore.builder().add("Q", new String[] {"a", "b"}, -1, "Java", Difficulty.EASY).build());
+        try (Player ann = new Player("ann"); Player bob = new Player("bob")) {
+            server.startRound();
+            ann.await("\"type\":\"question\"");
+            bob.await("\"type\":\"question\"");
+            ann.send("answer 1 0");
+            assertTrue(ann.await("\"type\":\"end\"").contains("\"correctIndex\":-1"));
+            assertTrue(ann.await("\"type\":\"score\"").contains("\"answered\":true,\"correct\":false,\"score\":0"));
+            assertTrue(bob.await("\"type\":\"score\"").contains("\"answered\":false,\"correct\":false,\"score\":0"));
+        }
+    }
+
+    private void start(QuestionStore bank) throws IOException {
+        server = new LiveQuizServer(QuestionBankWatcher.fixed(new QuestionIndex(bank)),
+                                    new InetSocketAddress("127.0.0.1", 0), 1);
+        server.start();
+    }
+
+    private final class Player implements AutoCloseable {
+        private final Socket socket;
+        private final BufferedReader in;
+        private final OutputStream out;
+
+        Player(String name) throws IOException {
+            socket = new Socket("127.0.0.1", server.port());
+            socket.setSoTimeout(5_000);
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            out = socket.getOutputStream();
+            send("join " + name);
+            await("\"type\":\"welcome\"");
+        }
+
+        void send(String line) throws IOException {
+            out.write((line + "\n").getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        }
+
+        // Skips lines up to the next one containing marker
+        String await(String marker) throws IOException {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.contains(marker)) return line;
+            }
+            throw new IOException("Connection closed before " + marker);
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package quiz;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuestionBankImporterTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void importsCsvWithAHeaderAndQuoting() throws IOException {
+        Path csv = write("bank.csv",
+            "question,option1,option2,option3,answer,category,difficulty\r\n"
+            + "\"Say \"\"hi\"\", then?\",\"a, b\",c,,c,UI/UX,hard\r\n"
+            + "Second?,x,y,z,x,,\r\n");
+        QuestionBank bank = importAndOpen(csv);
+        assertEquals(2, bank.size());
+        assertEquals("Say \"hi\", then?", bank.text(0));
+        assertArrayEquals(new String[] {"a, b", "c"}, bank.get(0).getOptions());
+        assertEquals(1, bank.correctIndex(0));
+        assertEquals("UI/UX", bank.get(0).getCategory());
+        assertEquals(Difficulty.HARD, bank.difficulty(0));
+        assertEquals(QuestionBank.DEFAULT_CATEGORY, bank.get(1).getCategory());
+        assertEquals(Difficulty.MEDIUM, bank.difficulty(1));
+        assertEquals(0, bank.correctIndex(1));
+        try (StringReader in = new StringReader(Files.readString(csv))) {
+            assertEquals(QuestionBankImporter.readCsv(in).fingerprint(), bank.fingerprint());
+        }
+    }
+
+    @Test
+    void importsJsonWithEscapesNullsAndOtherLiterals() throws IOException {
+        Path json = write("bank.json",
+            "[ {\"question\": \"Caf\\u00e9 \\\"quote\\\"\\n?\", \"options\": [\"yes\", \"no\"], \"answer\": \"no\",\n"
+            + "   \"category\": \"Java\", \"difficulty\": \"EASY\", \"id\": -1.5e3, \"reviewed\": true},\n"
+            + "  {\"question\": \"Tags?\", \"options\": [\"a\", \"b\"], \"answer\": \"a\", \"category\": null,\n"
+            + "   \"difficulty\": null, \"extra\": {\"flag\": false, \"list\": [1, null]}} ]");
+        QuestionBank bank = importAndOpen(json);
+        assertEquals(2, bank.size());
+        assertEquals("Caf\u00e9 \"quote\"\n?", bank.text(0));
+        assertEquals(1, bank.correctIndex(0));
+        assertEquals("Java", bank.get(0).getCategory());
+        assertEquals(Difficulty.EASY, bank.difficulty(0));
+        assertEquals(QuestionBank.DEFAULT_CATEGORY, bank.get(1).getCategory()); // not a category called "null"
+        assertEquals(Difficulty.MEDIUM, bank.difficulty(1));
+    }
+
+    @Test
+    void rejectsJsonOptionsThatAreNotStrings() {
+        IOException e = assertThrows(IOException.class, () -> readJson(
+            "[{\"question\": \"q\", \"options\": [\"a\", \"b\"], \"answer\": \"a\"},"
+            + " {\"question\": \"r\", \"options\": [\"a\", 2], \"answer\": \"a\"}]"));
+        assertEquals("Entry 2: option 2 is not a string", e.getMessage());
+        e = assertThrows(IOException.class, () -> readJson("[{\"question\": \"q\", \"options\": [\"a\"]}]"));
+        assertTrue(e.getMessage().startsWith("Entry 1:"), e.getMessage());
+    }
+
+    @Test
+    void reportsMalformedJson() {
+        assertThrows(IOException.class, () -> readJson("[{\"question\": \"\\u00"));
+        assertThrows(IOException.class, () -> readJson("[{\"question\": \"\\uzzzz\"}]"));
+        assertThrows(IOException.class, () -> readJson("[{\"question\": \"ab\\"));
+        assertThrows(IOException.class, () -> readJson("[{\"question\": nul}]"));
+        assertThrows(IOException.class, () -> readJson("[{\"question\": \"q\", \"difficulty\": \"extreme\","
+                                                       + " \"options\": [\"a\", \"b\"], \"answer\": \"a\"}]"));
+    }
+
+    @Test
+    void qbankRoundTripsEveryField() throws IOException {
+        Path file = dir.resolve("bank.qbank");
+        String[] many = new String[200];
+        for (int i = 0; i < many.length; i++) many[i] = "option " + i;
+        try (QuestionBankFile.Writer writer = QuestionBankFile.create(file)) {
+            writer.add("First", new String[] {"a", "b"}, "b", "Java", Difficulty.HARD);
+            writer.add("Many", many, 199, null, Difficulty.EASY);
+            writer.add("None", new String[] {"x", "y"}, "z", "UI/UX", Difficulty.MEDIUM);
+        }
+        QuestionBank bank = QuestionBankFile.open(file);
+        assertEquals(3, bank.size());
+        assertEquals(List.of("Java", QuestionBank.DEFAULT_CATEGORY, "UI/UX"), bank.categories());
+        assertEquals("First", bank.text(0));
+        assertEquals(1, bank.correctIndex(0));
+        assertEquals(Difficulty.HARD, bank.difficulty(0));
+        assertEquals(200, bank.optionCount(1));
+        assertEquals("option 150", bank.option(1, 150));
+        assertEquals(199, bank.correctIndex(1));
+        assertEquals(1, bank.category(1));
+        assertEquals(-1, bank.correctIndex(2));
+        assertEquals(2, bank.category(2));
+        assertTrue(bank.fingerprint() != 0);
+    }
+
+    @Test
+    void leavesOutputUnchangedWhenTheBankHasErrors() throws IOException {
+        Path output = dir.resolve("bank.qbank");
+        importAndOpen(write("good.csv", "Q?,a,b,a\n"));
+        byte[] before = Files.readAllBytes(output);
+        QuestionBankValidator.Report report = QuestionBankImporter.importFile(
+            write("bad.csv", "Q?,a,b,a\nNo answer?,a,b,c\n"), output);
+        assertEquals(1, report.errors());
+        assertArrayEquals(before, Files.readAllBytes(output));
+        assertTrue(Files.notExists(dir.resolve("bank.qbank.partial")));
+    }
+
+    @Test
+    void importsQuestionsWithMoreThan127Options() throws IOException {
+        StringBuilder row = new StringBuilder("Pick 200?");
+        for (int i = 0; i < 200; i++) row.append(",o").append(i);
+        QuestionBank bank = importAndOpen(write("wide.csv", row.append(",o180\n").toString()));
+        assertEquals(200, bank.optionCount(0));
+        assertEquals(180, bank.correctIndex(0));
+    }
+
+    private QuestionBank importAndOpen(Path input) throws IOException {
+        Path output = dir.resolve("bank.qbank");
+        QuestionBankValidator.Report report = QuestionBankImporter.importFile(input, output);
+        assertEquals(0, report.errors(), report.toString());
+        assertTrue(Files.notExists(dir.resolve("bank.qbank.partial")));
+        return QuestionBankFile.open(output);
+    }
+
+    private Path write(String name, String content) throws IOException {
+        return Files.writeString(dir.resolve(name), content, StandardCharsets.UTF_8);
+    }
+
+    private static void readJson(String json) throws IOException {
+        QuestionBankImporter.readJson(new StringReader(json), (question, options, answer, category, difficulty) -> { });
+    }
+}
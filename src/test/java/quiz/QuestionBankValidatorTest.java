@@ -0,0 +1,61 @@
+package quiz;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class QuestionBankValidatorTest {
+
+    @Test
+    void cleanBankHasNoFindings() {
+        QuestionBankValidator.Report report = QuestionBankValidator.validate(Banks.numbered("Q", 500));
+        assertEquals(500, report.getQuestions());
+        assertEquals(0, report.errors());
+        assertEquals(0, report.warnings());
+    }
+
+    @Test
+    void reportsEachKindOfProblem() {
+        QuestionStore bank = QuestionStore.builder()
+            .add("Fine", new String[] {"a", "b"}, 0, null, Difficulty.EASY)                   // 0
+            .add("No answer", new String[] {"a", "b"}, -1, null, Difficulty.EASY)             // 1
+            .add("One option", new String[] {"a"}, 0, null, Difficulty.EASY)                   // 2
+            .add("Same twice", new String[] {"Yes!", "yes"}, 0, null, Difficulty.EASY)         // 3
+            .add("  ", new String[] {"a", "b"}, 0, null, Difficulty.EASY)                      // 4
+            .add("Blank option", new String[] {"a", " "}, 0, null, Difficulty.EASY)            // 5
+            .add("Five", new String[] {"a", "b", "c", "d", "e"}, 0, null, Difficulty.EASY)     // 6
+            .add("FINE?", new String[] {"c", "d"}, 0, null, Difficulty.EASY)                   // 7
+            .add("  fine ", new String[] {"e", "f"}, 0, null, Difficulty.EASY)                 // 8
+            .build();
+        QuestionBankValidator.Report report = QuestionBankValidator.validate(bank);
+        assertArrayEquals(new int[] {1}, report.sampleIds(QuestionBankValidator.Issue.NO_ANSWER));
+        assertArrayEquals(new int[] {2}, report.sampleIds(QuestionBankValidator.Issue.TOO_FEW_OPTIONS));
+        assertArrayEquals(new int[] {3}, report.sampleIds(QuestionBankValidator.Issue.REPEATED_OPTION));
+        assertArrayEquals(new int[] {4, 5}, report.sampleIds(QuestionBankValidator.Issue.BLANK_TEXT));
+        assertArrayEquals(new int[] {6}, report.sampleIds(QuestionBankValidator.Issue.TOO_MANY_OPTIONS));
+        assertArrayEquals(new int[] {7, 8}, report.sampleIds(QuestionBankValidator.Issue.DUPLICATE_QUESTION));
+        assertEquals(5, report.errors());
+        assertEquals(3, report.warnings());
+    }
+
+    @Test
+    void countsEveryFindingButSamplesTheLowestIds() {
+        QuestionStore.Builder b = QuestionStore.builder();
+        for (int i = 0; i < 10_000; i++) {
+            b.add("Question " + i, new String[] {"a", "b"}, i % 1000 == 999 ? -1 : 0, null, Difficulty.MEDIUM);
+        }
+        QuestionBankValidator.Report report = QuestionBankValidator.validate(b.build());
+        assertEquals(10, report.count(QuestionBankValidator.Issue.NO_ANSWER));
+        assertEquals(10, report.errors());
+        assertArrayEquals(new int[] {999, 1999, 2999, 3999, 4999},
+                          report.sampleIds(QuestionBankValidator.Issue.NO_ANSWER));
+    }
+
+    @Test
+    void normalisesCasePunctuationAndSpacing() {
+        assertEquals("what is 2 2", QuestionBankValidator.normalise("  What   is 2+2?? "));
+        assertEquals(QuestionBankValidator.normalisedHash("what is 2 2"),
+                     QuestionBankValidator.normalisedHash("  What   is 2+2?? "));
+    }
+}
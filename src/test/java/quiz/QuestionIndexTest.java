@@ -0,0 +1,64 @@
+package quiz;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuestionIndexTest {
+    private final QuestionIndex index = new QuestionIndex(Banks.numbered("Q", 60));
+
+    @Test
+    void drawsDistinctIdsFromTheSelection() {
+        QuestionIndex.Selection java = index.select(Collections.singleton("Java"), EnumSet.of(Difficulty.HARD));
+        assertEquals(10, java.size()); // even ids with id % 3 == 2
+        SplittableRandom random = new SplittableRandom(1);
+        for (int round = 0; round < 1000; round++) {
+            int[] ids = java.draw(7, random);
+            Set<Integer> seen = new HashSet<>();
+            for (int id : ids) {
+                assertTrue(seen.add(id), "repeated id " + id + " in " + Arrays.toString(ids));
+                assertEquals(0, id % 2);
+                assertEquals(2, id % 3);
+            }
+        }
+    }
+
+    @Test
+    void drawIsClampedToTheSelectionAndCoversIt() {
+        QuestionIndex.Selection all = index.all();
+        int[] ids = all.draw(1000, new SplittableRandom(2));
+        assertEquals(60, ids.length);
+        int[] sorted = ids.clone();
+        Arrays.sort(sorted);
+        for (int i = 0; i < sorted.length; i++) assertEquals(i, sorted[i]);
+        assertEquals(0, index.select(Collections.singleton("Nope"), EnumSet.allOf(Difficulty.class))
+                             .draw(5, new SplittableRandom(3)).length);
+    }
+
+    @Test
+    void everyQuestionIsEquallyLikely() {
+        QuestionIndex.Selection all = index.all();
+        SplittableRandom random = new SplittableRandom(4);
+        int draws = 60_000;
+        int[] hits = new int[60];
+        int[] firsts = new int[60];
+        for (int i = 0; i < draws; i++) {
+            int[] ids = all.draw(5, random);
+            for (int id : ids) hits[id]++;
+            firsts[ids[0]]++;
+        }
+        // 5,000 expected hits each (sd ~ 69) and 1,000 first places (sd ~ 31)
+        for (int id = 0; id < 60; id++) {
+            assertTrue(Math.abs(hits[id] - 5_000) < 400, "question " + id + " drawn " + hits[id] + " times");
+            assertTrue(Math.abs(firsts[id] - 1_000) < 200, "question " + id + " first " + firsts[id] + " times");
+        }
+    }
+}
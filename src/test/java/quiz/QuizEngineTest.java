@@ -0,0 +1,101 @@
+package quiz;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuizEngineTest {
+    private final QuestionIndex index = new QuestionIndex(Banks.numbered("Q", 20));
+
+    @Test
+    void scoresAnswersByOptionIndex() {
+        QuizEngine engine = new QuizEngine(index.all(), 3, new SplittableRandom(1));
+        assertEquals(3, engine.getQuestionCount());
+        assertTrue(engine.answer(1)); // option b is correct throughout
+        assertThrows(IllegalStateException.class, () -> engine.answer(1)); // already closed
+        assertTrue(engine.next());
+        assertFalse(engine.answer(0));
+        assertTrue(engine.next());
+        assertTrue(engine.answer(1));
+        assertEquals(2, engine.getScore());
+        assertFalse(engine.next());
+        assertTrue(engine.isFinished());
+        assertNull(engine.getCurrentQuestion());
+        assertFalse(engine.isAwaitingAnswer());
+    }
+
+    @Test
+    void drawsDistinctQuestionsAndRedrawsOnRestart() {
+        QuizEngine engine = new QuizEngine(index.all(), 20, new SplittableRandom(2));
+        Set<Integer> asked = new HashSet<>();
+        do {
+            assertTrue(asked.add(engine.getCurrentQuestion().getId()));
+            engine.answer(1);
+        } while (engine.next());
+        assertEquals(20, asked.size());
+        engine.restart();
+        assertEquals(0, engine.getCurrentIndex());
+        assertEquals(0, engine.getScore());
+        assertTrue(engine.isAwaitingAnswer());
+    }
+
+    @Test
+    void openQuestionHasTheFullCountdown() {
+        QuizEngine engine = new QuizEngine(index.all(), 3, new SplittableRandom(3));
+        assertEquals(QuizEngine.SECONDS_PER_QUESTION, engine.getTimeLeft());
+        assertFalse(engine.expire()); // deadline still ahead
+        assertTrue(engine.isAwaitingAnswer());
+        assertFalse(engine.isTimedOut());
+    }
+
+    @Test
+    void questionPastItsDeadlineTimesOutOnce() {
+        // A checkpoint with no time left resumes with the deadline already passed
+        QuizEngine engine = new QuizEngine(index.all(), new SplittableRandom(4), saved(0, 1, 0));
+        assertTrue(engine.expire());
+        assertFalse(engine.expire());
+        assertTrue(engine.isTimedOut());
+        assertEquals(0, engine.getTimeLeft());
+        assertThrows(IllegalStateException.class, () -> engine.answer(1));
+        assertEquals(1, engine.getScore()); // a timeout scores nothing
+        assertTrue(engine.next());
+        assertTrue(engine.isAwaitingAnswer());
+        assertFalse(engine.isTimedOut());
+    }
+
+    @Test
+    void resumesPositionScoreAndTimeLeft() {
+        QuizEngine engine = new QuizEngine(index.all(), new SplittableRandom(5), saved(2, 2, 5_000));
+        assertEquals(2, engine.getCurrentIndex());
+        assertEquals(2, engine.getScore());
+        assertEquals(4, engine.getQuestionCount());
+        assertEquals(7, engine.getCurrentQuestion().getId());
+        assertTrue(engine.getTimeLeft() <= 5 && engine.getTimeLeft() >= 4, "time left " + engine.getTimeLeft());
+        assertTrue(engine.answer(1));
+        assertEquals(3, engine.getScore());
+    }
+
+    @Test
+    void rejectsACheckpointThatDoesNotFitTheBank() {
+        QuestionIndex other = new QuestionIndex(Banks.numbered("Other", 20));
+        assertThrows(IllegalArgumentException.class,
+                     () -> new QuizEngine(other.all(), new SplittableRandom(), saved(0, 0, 1_000)));
+        SessionCheckpoints.Saved badId = new SessionCheckpoints.Saved(0, 1, 1, "", index.bank().fingerprint(), 2,
+                                                                      new int[] {3, 20}, 0, 0, 1_000, Double.NaN);
+        assertThrows(IllegalArgumentException.class, () -> new QuizEngine(index.all(), new SplittableRandom(), badId));
+    }
+
+    // Questions 3, 5, 7 and 9 of index's bank, at position with score and time left
+    private SessionCheckpoints.Saved saved(int position, int score, int timeLeftMillis) {
+        return new SessionCheckpoints.Saved(0, 1, 1, "", index.bank().fingerprint(), 4, new int[] {3, 5, 7, 9},
+                                            position, score, timeLeftMillis, Double.NaN);
+    }
+}
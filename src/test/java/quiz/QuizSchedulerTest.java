@@ -0,0 +1,88 @@
+package quiz;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuizSchedulerTest {
+    private final QuizScheduler scheduler = new QuizScheduler(TimeUnit.MILLISECONDS.toNanos(5), 16);
+
+    @Test
+    void delaysFireInDeadlineOrderAcrossWheelRounds() throws InterruptedException {
+        List<String> fired = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(3);
+        // 16 slots of 5 ms: the 200 ms delay laps the wheel twice
+        scheduler.newDelay(() -> { fired.add("200"); done.countDown(); }).start(200, TimeUnit.MILLISECONDS);
+        scheduler.newDelay(() -> { fired.add("20"); done.countDown(); }).start(20, TimeUnit.MILLISECONDS);
+        scheduler.newDelay(() -> { fired.add("90"); done.countDown(); }).start(90, TimeUnit.MILLISECONDS);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("20", "90", "200"), fired);
+    }
+
+    @Test
+    void cancelledAndReplacedDelaysDoNotFire() throws InterruptedException {
+        List<String> fired = new CopyOnWriteArrayList<>();
+        QuizScheduler.Delay cancelled = scheduler.newDelay(() -> fired.add("cancelled"));
+        QuizScheduler.Delay rearmed = scheduler.newDelay(() -> fired.add("rearmed"));
+        cancelled.start(30, TimeUnit.MILLISECONDS);
+        rearmed.start(30, TimeUnit.MILLISECONDS);
+        cancelled.cancel();
+        rearmed.start(120, TimeUnit.MILLISECONDS); // replaces the 30 ms deadline
+        Thread.sleep(80);
+        assertEquals(List.of(), fired);
+        Thread.sleep(200);
+        assertEquals(List.of("rearmed"), fired);
+    }
+
+    @Test
+    void countdownTicksDownThenTimesOutOnce() throws InterruptedException {
+        List<Integer> ticks = new CopyOnWriteArrayList<>();
+        CountDownLatch timedOut = new CountDownLatch(1);
+        List<Long> timeouts = new CopyOnWriteArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(2_500);
+        scheduler.newCountdown(new QuizScheduler.CountdownListener() {
+            @Override
+            public void onTick(int secondsLeft) {
+                ticks.add(secondsLeft);
+            }
+
+            @Override
+            public void onTimeout() {
+                timeouts.add(System.nanoTime());
+                timedOut.countDown();
+            }
+        }).start(deadline);
+        assertTrue(timedOut.await(5, TimeUnit.SECONDS));
+        assertTrue(timeouts.get(0) >= deadline, "timed out before the deadline");
+        assertEquals(List.of(2, 1), ticks);
+        Thread.sleep(100);
+        assertEquals(1, timeouts.size());
+    }
+
+    @Test
+    void cancelledCountdownNeitherTicksNorTimesOut() throws InterruptedException {
+        List<String> events = new CopyOnWriteArrayList<>();
+        QuizScheduler.Countdown countdown = scheduler.newCountdown(new QuizScheduler.CountdownListener() {
+            @Override
+            public void onTick(int secondsLeft) {
+                events.add("tick " + secondsLeft);
+            }
+
+            @Override
+            public void onTimeout() {
+                events.add("timeout");
+            }
+        });
+        countdown.start(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(1_100));
+        Thread.sleep(300); // past the first tick at ~100 ms
+        countdown.cancel();
+        Thread.sleep(1_100);
+        assertEquals(List.of("tick 1"), events);
+    }
+}
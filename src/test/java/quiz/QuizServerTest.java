@@ -0,0 +1,130 @@
+package quiz;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuizServerTest {
+    @TempDir
+    Path dir;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private Leaderboard leaderboard;
+    private QuizServer server;
+
+    @BeforeEach
+    void start() throws IOException {
+        leaderboard = Leaderboard.open(dir);
+        server = new QuizServer(new QuestionIndex(Banks.numbered("Q", 12)), leaderboard,
+                                new InetSocketAddress("127.0.0.1", 0));
+        server.start();
+    }
+
+    @AfterEach
+    void stop() throws IOException {
+        server.stop();
+        leaderboard.close();
+    }
+
+    @Test
+    void playsASessionThroughToTheLeaderboard() throws Exception {
+        HttpResponse<String> created = send("POST", "/sessions?player=ann&count=3");
+        assertEquals(201, created.statusCode());
+        assertEquals(3, number(created, "total"));
+        long id = number(created, "session");
+
+        HttpResponse<String> question = send("GET", "/sessions/" + id + "/question");
+        assertEquals(200, question.statusCode());
+        assertTrue(question.body().contains("\"options\":[\"a\",\"b\",\"c\"]"), question.body());
+        assertEquals(0, number(question, "index"));
+
+        HttpResponse<String> answer = send("POST", "/sessions/" + id + "/answer?option=1");
+        assertTrue(answer.body().contains("\"correct\":true"), answer.body());
+        assertEquals(1, number(answer, "correctIndex"));
+        answer = send("POST", "/sessions/" + id + "/answer?option=0");
+        assertTrue(answer.body().contains("\"correct\":false"), answer.body());
+        answer = send("POST", "/sessions/" + id + "/answer?option=1");
+        assertTrue(answer.body().contains("\"finished\":true"), answer.body());
+
+        HttpResponse<String> result = send("GET", "/sessions/" + id + "/result");
+        assertEquals(2, number(result, "score"));
+        assertEquals(409, send("POST", "/sessions/" + id + "/answer?option=1").statusCode());
+
+        // The leaderboard commits in the background
+        for (int i = 0; i < 100 && leaderboard.best("ann") == null; i++) Thread.sleep(20);
+        HttpResponse<String> standing = send("GET", "/leaderboard/ann");
+        assertEquals(200, standing.statusCode());
+        assertEquals(2, number(standing, "score"));
+        assertEquals(1, number(standing, "rank"));
+    }
+
+    @Test
+    void filtersBySelection() throws Exception {
+        HttpResponse<String> created = send("POST", "/sessions?categories=Java&difficulty=HARD");
+        assertEquals(201, created.statusCode());
+        assertEquals(2, number(created, "total")); // ids 2 and 8
+        long id = number(created, "session");
+        for (int i = 0; i < 2; i++) {
+            assertTrue(send("GET", "/sessions/" + id + "/question").body().contains("\"question\":\"Q question "));
+            send("POST", "/sessions/" + id + "/answer?option=2");
+        }
+        assertTrue(send("GET", "/sessions/" + id + "/question").body().contains("\"finished\":true"));
+    }
+
+    @Test
+    void adaptiveSessionsReportAbility() throws Exception {
+        for (int n = 0; n < 2; n++) { // the second session reuses the selection's selector
+            long id = number(send("POST", "/sessions?adaptive=true&count=4"), "session");
+            for (int i = 0; i < 4; i++) {
+                assertTrue(send("POST", "/sessions/" + id + "/answer?option=1").body().contains("\"ability\":"));
+            }
+            HttpResponse<String> result = send("GET", "/sessions/" + id + "/result");
+            assertTrue(result.body().contains("\"finished\":true"), result.body());
+            assertEquals(4, number(result, "score"));
+        }
+    }
+
+    @Test
+    void rejectsBadRequests() throws Exception {
+        assertEquals(405, send("GET", "/sessions").statusCode());
+        assertEquals(400, send("POST", "/sessions?count=0").statusCode());
+        assertEquals(400, send("POST", "/sessions?difficulty=IMPOSSIBLE").statusCode());
+        assertEquals(400, send("POST", "/sessions?categories=Nope").statusCode());
+        assertEquals(404, send("GET", "/sessions/999/question").statusCode());
+        assertEquals(404, send("GET", "/sessions/abc/question").statusCode());
+        assertEquals(404, send("GET", "/leaderboard/nobody").statusCode());
+
+        long id = number(send("POST", "/sessions?count=2"), "session");
+        assertEquals(400, send("POST", "/sessions/" + id + "/answer?option=3").statusCode());
+        assertEquals(404, send("GET", "/sessions/" + id + "/nothing").statusCode());
+        assertEquals(204, send("DELETE", "/sessions/" + id).statusCode());
+        assertEquals(404, send("GET", "/sessions/" + id + "/result").statusCode());
+        assertEquals(0, server.sessionCount());
+    }
+
+    private HttpResponse<String> send(String method, String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.port() + path))
+                                         .method(method, HttpRequest.BodyPublishers.noBody()).build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static long number(HttpResponse<String> response, String field) {
+        Matcher m = Pattern.compile("\"" + field + "\":(-?\\d+)").matcher(response.body());
+        assertTrue(m.find(), field + " missing from " + response.body());
+        return Long.parseLong(m.group(1));
+    }
+}
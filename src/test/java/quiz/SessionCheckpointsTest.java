@@ -0,0 +1,116 @@
+package quiz;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SessionCheckpointsTest {
+    // Slot 0 layout, from the format in SessionCheckpoints
+    private static final int SLOT = 64;
+    private static final int RECORD_A = SLOT + 22 + SessionCheckpoints.LABEL_BYTES;
+    private static final int RECORD_B = RECORD_A + 32;
+
+    @TempDir
+    Path dir;
+
+    private final QuestionIndex index = new QuestionIndex(Banks.numbered("Q", 40));
+
+    @Test
+    void resumesTheLatestSave() throws IOException {
+        Path file = dir.resolve("s.ckpt");
+        QuizEngine engine = new QuizEngine(index.all(), 10, new SplittableRandom(1));
+        try (SessionCheckpoints checkpoints = SessionCheckpoints.open(file, 4, 30)) {
+            SessionCheckpoints.Slot slot = checkpoints.claim(42, "ann");
+            engine.answer(engine.getCurrentQuestion().getCorrectIndex());
+            slot.save(engine);
+            engine.next();
+            engine.answer(0);
+            slot.save(engine);
+        }
+        try (SessionCheckpoints checkpoints = SessionCheckpoints.open(file, 4, 30)) {
+            assertEquals(1, checkpoints.saved().size());
+            SessionCheckpoints.Saved saved = checkpoints.saved().get(0);
+            assertEquals(42, saved.getSessionId());
+            assertEquals("ann", saved.getLabel());
+            assertEquals(2, saved.getPosition());
+            assertEquals(1, saved.getScore());
+            assertArrayEquals(engine.order(), saved.questionIds());
+            QuizEngine resumed = new QuizEngine(index.all(), new SplittableRandom(2), saved);
+            assertEquals(2, resumed.getCurrentIndex());
+            assertEquals(1, resumed.getScore());
+        }
+    }
+
+    @Test
+    void fallsBackToTheOlderRecordAfterATornSave() throws IOException {
+        Path file = dir.resolve("s.ckpt");
+        QuizEngine engine = new QuizEngine(index.all(), 10, new SplittableRandom(1));
+        try (SessionCheckpoints checkpoints = SessionCheckpoints.open(file, 4, 30)) {
+            SessionCheckpoints.Slot slot = checkpoints.claim(42, "ann");
+            engine.answer(engine.getCurrentQuestion().getCorrectIndex());
+            slot.save(engine);
+            engine.next();
+            engine.answer(0);
+            slot.save(engine);
+        }
+        // A crash mid-write leaves the newer record's sequence at 0
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer a = ByteBuffer.allocate(4);
+            ByteBuffer b = ByteBuffer.allocate(4);
+            ch.read(a, RECORD_A);
+            ch.read(b, RECORD_B);
+            long newer = Integer.compareUnsigned(a.getInt(0), b.getInt(0)) > 0 ? RECORD_A : RECORD_B;
+            ch.write(ByteBuffer.allocate(4), newer);
+        }
+        try (SessionCheckpoints checkpoints = SessionCheckpoints.open(file, 4, 30)) {
+            SessionCheckpoints.Saved saved = checkpoints.saved().get(0);
+            assertEquals(1, saved.getPosition());
+            assertEquals(1, saved.getScore());
+        }
+    }
+
+    @Test
+    void dropsSlotsWithImpossibleState() throws IOException {
+        Path file = dir.resolve("s.ckpt");
+        try (SessionCheckpoints checkpoints = SessionCheckpoints.open(file, 4, 30)) {
+            checkpoints.claim(42, "ann").save(new QuizEngine(index.all(), 10, new SplittableRandom(1)));
+        }
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ch.write(ByteBuffer.allocate(4).putInt(0, 1_000), SLOT + 16); // question count > maxQuestions
+        }
+        try (SessionCheckpoints checkpoints = SessionCheckpoints.open(file, 4, 30)) {
+            assertTrue(checkpoints.saved().isEmpty());
+            assertEquals(4, countClaims(checkpoints)); // and its slot is free again
+        }
+    }
+
+    @Test
+    void rejectsACheckpointFromAnotherBankOfTheSameSize() throws IOException {
+        Path file = dir.resolve("s.ckpt");
+        try (SessionCheckpoints checkpoints = SessionCheckpoints.open(file, 4, 30)) {
+            checkpoints.claim(42, "ann").save(new QuizEngine(index.all(), 10, new SplittableRandom(1)));
+        }
+        QuestionIndex other = new QuestionIndex(Banks.numbered("Other", 40));
+        try (SessionCheckpoints checkpoints = SessionCheckpoints.open(file, 4, 30)) {
+            SessionCheckpoints.Saved saved = checkpoints.saved().get(0);
+            assertThrows(IllegalArgumentException.class, () -> new QuizEngine(other.all(), new SplittableRandom(), saved));
+        }
+    }
+
+    private static int countClaims(SessionCheckpoints checkpoints) {
+        int n = 0;
+        while (checkpoints.claim(n + 1, "") != null) n++;
+        return n;
+    }
+}